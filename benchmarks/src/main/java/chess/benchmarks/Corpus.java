@@ -0,0 +1,41 @@
+package chess.benchmarks;
+
+import chess.ChessGame;
+import chess.perft.Perft;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Positions every benchmark iterates over: the perft reference positions
+ * plus a spread of opening, middlegame and endgame positions, including
+ * ones in check, checkmate and stalemate so the status checks exercise
+ * both their early and late exits.
+ */
+public final class Corpus {
+    private static final List<Perft.Position> EXTRA = List.of(
+            new Perft.Position("italian", "r1bqk1nr/pppp1ppp/2n5/2b1p3/2B1P3/5N2/PPPP1PPP/RNBQK2R w KQkq - 0 1"),
+            new Perft.Position("open-centre", "r2q1rk1/pp1bbppp/2np1n2/2p5/2BPP3/2N2N2/PP2QPPP/R1B2RK1 b - - 0 1"),
+            new Perft.Position("in-check", "rnb1kbnr/pppp1ppp/8/4p3/7q/5P2/PPPPP1PP/RNBQKBNR w KQkq - 0 1"),
+            new Perft.Position("checkmate", "rnb1kbnr/pppp1ppp/8/4p3/6Pq/5P2/PPPPP2P/RNBQKBNR w KQkq - 0 1"),
+            new Perft.Position("stalemate", "k7/2Q5/8/8/8/8/8/7K b - - 0 1"),
+            new Perft.Position("rook-endgame", "8/5kp1/7p/1R6/6P1/1r5P/5PK1/8 w - - 0 1")
+    );
+
+    private Corpus() {
+    }
+
+    /**
+     * @return a fresh game for every corpus position
+     */
+    public static List<ChessGame> games() {
+        List<ChessGame> games = new ArrayList<>();
+        for (Perft.Position position : Perft.POSITIONS) {
+            games.add(position.load());
+        }
+        for (Perft.Position position : EXTRA) {
+            games.add(position.load());
+        }
+        return games;
+    }
+}
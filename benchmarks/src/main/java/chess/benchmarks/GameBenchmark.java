@@ -0,0 +1,147 @@
+package chess.benchmarks;
+
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPosition;
+import chess.InvalidMoveException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The ChessGame and ChessBoard entry points the server calls on every move.
+ * Each operation covers the whole corpus.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GameBenchmark {
+    private List<ChessGame> games;
+    private final List<ChessMove> firstMoves = new ArrayList<>();
+
+    @Setup
+    public void setup() {
+        games = Corpus.games();
+        for (ChessGame game : games) {
+            firstMoves.add(firstLegalMove(game));
+        }
+    }
+
+    private static ChessMove firstLegalMove(ChessGame game) {
+        Collection<ChessMove> moves = game.legalMoves();
+        return moves.isEmpty() ? null : moves.iterator().next();
+    }
+
+    /**
+     * The moves of each piece of the side to move, as the client asks for
+     * them. Works on a {@link ChessGame#copy} of each position, so the first
+     * call generates the side's moves and the rest read the cache.
+     */
+    @Benchmark
+    public void validMoves(Blackhole blackhole) {
+        for (ChessGame game : games) {
+            ChessGame fresh = game.copy();
+            for (ChessPosition position : fresh.getBoard().findTeamPosition(fresh.getTeamTurn())) {
+                blackhole.consume(fresh.validMoves(position));
+            }
+        }
+    }
+
+    /**
+     * Every legal move for the side to move in one call. Includes a
+     * {@link ChessGame#copy} per position so the moves are generated rather
+     * than read from the game's cache; see {@link #copy} for that cost.
+     */
+    @Benchmark
+    public void legalMoves(Blackhole blackhole) {
+        for (ChessGame game : games) {
+            blackhole.consume(game.copy().legalMoves());
+        }
+    }
+
+    /**
+     * Includes a {@link ChessGame#copy} per position so every call starts
+     * from the same position; see {@link #copy} for that cost on its own.
+     */
+    @Benchmark
+    public void makeMove(Blackhole blackhole) throws InvalidMoveException {
+        for (int i = 0; i < games.size(); i++) {
+            ChessMove move = firstMoves.get(i);
+            if (move != null) {
+                ChessGame game = games.get(i).copy();
+                game.makeMove(move);
+                blackhole.consume(game);
+            }
+        }
+    }
+
+    @Benchmark
+    public void copy(Blackhole blackhole) {
+        for (ChessGame game : games) {
+            blackhole.consume(game.copy());
+        }
+    }
+
+    @Benchmark
+    public void isInCheck(Blackhole blackhole) {
+        for (ChessGame game : games) {
+            blackhole.consume(game.isInCheck(game.getTeamTurn()));
+        }
+    }
+
+    /**
+     * Includes a {@link ChessGame#copy} per position so the moves behind the
+     * answer are generated rather than read from the game's cache.
+     */
+    @Benchmark
+    public void isInCheckmate(Blackhole blackhole) {
+        for (ChessGame game : games) {
+            ChessGame fresh = game.copy();
+            blackhole.consume(fresh.isInCheckmate(fresh.getTeamTurn()));
+        }
+    }
+
+    // on a copy for the same reason as isInCheckmate
+    @Benchmark
+    public void isInStalemate(Blackhole blackhole) {
+        for (ChessGame game : games) {
+            ChessGame fresh = game.copy();
+            blackhole.consume(fresh.isInStalemate(fresh.getTeamTurn()));
+        }
+    }
+
+    // on a copy for the same reason as isInCheckmate
+    @Benchmark
+    public void status(Blackhole blackhole) {
+        for (ChessGame game : games) {
+            ChessGame fresh = game.copy();
+            blackhole.consume(fresh.status(fresh.getTeamTurn()));
+        }
+    }
+
+    @Benchmark
+    public void duplicateBoard(Blackhole blackhole) {
+        for (ChessGame game : games) {
+            ChessBoard copy = new ChessBoard();
+            copy.duplicateBoard(game.getBoard());
+            blackhole.consume(copy);
+        }
+    }
+}
@@ -7,6 +7,7 @@ import chess.ChessPosition;
 
 import java.io.PrintStream;
 import java.nio.charset.StandardCharsets;
+import java.util.Collection;
 import java.util.HashSet;
 import java.util.Random;
 import java.util.Set;
@@ -40,10 +41,11 @@ public class BoardMaker {
 
         Set<ChessPosition> highlights = new HashSet<>();
         if (position != null) {
-            if (game.validMoves(position) == null) {
+            Collection<ChessMove> moves = game.validMoves(position);
+            if (moves == null) {
                 throw new Exception("Error: no valid moves for selected position");
             }
-            for (ChessMove move : game.validMoves(position)) {
+            for (ChessMove move : moves) {
                 highlights.add(move.getEndPosition());
             }
         }
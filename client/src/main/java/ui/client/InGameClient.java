@@ -109,11 +109,7 @@ public class InGameClient {
         ChessPosition endPos = new ChessPosition(endRow, endCol);
         ChessMove move = new ChessMove(startPos, endPos, null);
 
-        var moves = this.chessGame.validMoves(startPos);
-        if (moves == null) {
-            throw new ResponseException(500, "Error: move is not valid");
-        }
-        if (!moves.contains(move)) {
+        if (!this.chessGame.isLegal(move)) {
             throw new ResponseException(500, "Error: move is not valid");
         }
 
@@ -0,0 +1,8 @@
+package requests;
+
+/**
+ * A position to analyse, given as a FEN string or, when fen is null, as the
+ * current position of a game. depth and lines may be null for the defaults.
+ */
+public record AnalysisRequest(String fen, Integer gameID, Integer depth, Integer lines) {
+}
@@ -0,0 +1,7 @@
+package requests;
+
+import chess.ChessGame;
+import service.BotLevel;
+
+public record BotJoinRequest(ChessGame.TeamColor playerColor, int gameID, BotLevel level) {
+}
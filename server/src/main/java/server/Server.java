@@ -13,8 +13,14 @@ import server.websocket.WebSocketHandler;
 import service.*;
 import spark.*;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 import java.sql.SQLException;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 
 public class Server {
 
@@ -24,6 +30,7 @@ public class Server {
     private final UserAccess userAccess;
     private final GameService gameService;
     private final GameAccess gameAccess;
+    private final AnalysisService analysisService;
 
     public Server() {
         try {
@@ -38,6 +45,7 @@ public class Server {
         userService = new UserService(userAccess, authAccess);
         authService = new AuthService(authAccess);
         gameService = new GameService(gameAccess, authAccess);
+        analysisService = new AnalysisService(gameAccess);
     }
 
     public int run(int desiredPort) {
@@ -54,6 +62,8 @@ public class Server {
         Spark.post("/game", this::create);
         Spark.get("/game", this::list);
         Spark.put("/game", this::join);
+        Spark.put("/game/bot", this::joinBot);
+        Spark.post("/analysis", this::analyse);
 
         //This line initializes the server and can be removed once you have a functioning endpoint
         Spark.init();
@@ -75,6 +85,14 @@ public class Server {
             res.status(403);
             return new Gson().toJson(Map.of("message", e.getMessage()));
         }
+        if (e instanceof ForbiddenException) {
+            res.status(403);
+            return new Gson().toJson(Map.of("message", e.getMessage()));
+        }
+        if (e instanceof BusyException) {
+            res.status(429);
+            return new Gson().toJson(Map.of("message", e.getMessage()));
+        }
         res.status(500);
         return new Gson().toJson(Map.of("message", "Error: " + e.getMessage()));
     }
@@ -101,6 +119,85 @@ public class Server {
         }
     }
 
+    private Object joinBot(Request req, Response res) {
+        try {
+            String authToken = req.headers("Authorization");
+            if (authToken == null) {
+                throw new UnauthorizedException("Error: unauthorized");
+            }
+            AuthData data = authAccess.getAuth(authToken);
+            if (data == null) {
+                throw new UnauthorizedException("Error: unauthorized");
+            }
+            BotJoinRequest request = new Gson().fromJson(req.body(), BotJoinRequest.class);
+
+            gameService.joinBot(request, data.username());
+            return "";
+        } catch(Exception e) {
+            return catchHelper(res, e);
+        }
+    }
+
+    /**
+     * Streams the analysis as newline-delimited JSON, one AnalysisMessage per
+     * finished depth, so clients can show it deepening. Once the job is
+     * queued the response is committed, so a failure after that point ends
+     * the stream with an {@code {"error": ...}} line instead of a status.
+     * <p>
+     * The request holds its Jetty thread until the job ends. Jobs are bounded
+     * by the analysis pool and its queue, so at most
+     * {@link AnalysisService#MAX_CONCURRENT_JOBS} of Jetty's 200 threads are
+     * ever held here, none for longer than the queued jobs ahead of it plus
+     * {@link AnalysisService#MAX_MILLIS}.
+     */
+    private Object analyse(Request req, Response res) {
+        Future<?> job;
+        OutputStream out;
+        Gson gson = new Gson();
+        try {
+            String authToken = req.headers("Authorization");
+            if (authToken == null) {
+                throw new UnauthorizedException("Error: unauthorized");
+            }
+            AuthData data = authAccess.getAuth(authToken);
+            if (data == null) {
+                throw new UnauthorizedException("Error: unauthorized");
+            }
+            AnalysisRequest request = gson.fromJson(req.body(), AnalysisRequest.class);
+
+            res.type("application/x-ndjson");
+            out = res.raw().getOutputStream();
+            job = analysisService.analyse(request, data.username(), message -> {
+                try {
+                    out.write((gson.toJson(message) + "\n").getBytes(StandardCharsets.UTF_8));
+                    out.flush();
+                } catch (IOException e) {
+                    // the client went away; failing here ends the analysis
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch(Exception e) {
+            return catchHelper(res, e);
+        }
+
+        try {
+            job.get();
+        } catch (ExecutionException | InterruptedException e) {
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            Throwable cause = e instanceof ExecutionException ? e.getCause() : e;
+            try {
+                out.write((gson.toJson(Map.of("error", "Error: " + cause.getMessage())) + "\n")
+                        .getBytes(StandardCharsets.UTF_8));
+                out.flush();
+            } catch (IOException ignored) {
+                // the client is already gone
+            }
+        }
+        return "";
+    }
+
     private Object list(Request req, Response res) {
         try {
             String authToken = req.headers("Authorization");
@@ -0,0 +1,111 @@
+package server.websocket;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.book.OpeningBook;
+import chess.engine.Engine;
+import service.BotLevel;
+import service.Endgames;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Thinks for the bots seated in games. Searches run on a small shared pool
+ * rather than on the websocket threads, so a bot taking seconds over a move
+ * never holds up messages for other games. The pool and its queue are
+ * bounded; when both are full a request is turned away instead of queued.
+ * <p>
+ * Each pool thread keeps its own {@link Engine}, so transposition tables are
+ * reused from one move to the next without being shared between searches.
+ * <p>
+ * While a game is still in the opening book, bots play a book move instead
+ * of searching. The book is read from the file named by the
+ * {@code chess.book} system property, {@code book.bin} by default; without
+ * one, bots search from the first move.
+ */
+final class BotPlayers {
+    private static final int THREADS = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+    private static final int QUEUE_SIZE = 64;
+
+    private static final AtomicInteger THREAD_COUNT = new AtomicInteger();
+    private static final ThreadPoolExecutor POOL = new ThreadPoolExecutor(THREADS, THREADS,
+            0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(QUEUE_SIZE), task -> {
+                Thread thread = new Thread(task, "bot-" + THREAD_COUNT.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+    private static final ThreadLocal<Engine> ENGINES = ThreadLocal.withInitial(() -> {
+        Engine engine = new Engine();
+        engine.setTablebases(Endgames.TABLEBASES);
+        return engine;
+    });
+    private static final OpeningBook BOOK = loadBook();
+
+    // games with a search queued or running, so a game never has two at once
+    private static final Set<Integer> THINKING = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Called on a bot thread with the move a bot chose
+     */
+    interface Reply {
+        /**
+         * @param positionKey the {@link ChessGame#zobristKey()} of the position searched
+         */
+        void play(int gameID, ChessMove move, long positionKey);
+    }
+
+    private BotPlayers() {
+    }
+
+    private static OpeningBook loadBook() {
+        Path path = Path.of(System.getProperty("chess.book", "book.bin"));
+        try {
+            return OpeningBook.openIfExists(path);
+        } catch (IOException e) {
+            System.out.println("Could not load the opening book: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Starts a bot thinking about its move in a game. Does nothing if it is
+     * already thinking about this game.
+     *
+     * @return False if the pool is too busy to take the search
+     */
+    static boolean requestMove(int gameID, ChessGame game, BotLevel level, Reply reply) {
+        if (!THINKING.add(gameID)) {
+            return true;
+        }
+        try {
+            POOL.execute(() -> {
+                ChessMove move;
+                try {
+                    move = BOOK == null ? null : BOOK.pick(game, ThreadLocalRandom.current());
+                    if (move == null) {
+                        move = ENGINES.get().bestMove(game, level.limits());
+                    }
+                } finally {
+                    // cleared before replying so a bot-versus-bot game can queue the next move
+                    THINKING.remove(gameID);
+                }
+                if (move != null) {
+                    reply.play(gameID, move, game.zobristKey());
+                }
+            });
+            return true;
+        } catch (RejectedExecutionException e) {
+            THINKING.remove(gameID);
+            return false;
+        }
+    }
+}
@@ -15,7 +15,11 @@ public class Connection {
         this.gameID = gameID;
     }
 
+    // bot moves and analyses are sent from their own threads, so sends to one
+    // session are serialized, even through connections that were never registered
     public void send(String msg) throws IOException {
-        session.getRemote().sendString(msg);
+        synchronized (session) {
+            session.getRemote().sendString(msg);
+        }
     }
 }
@@ -18,11 +18,18 @@ import org.eclipse.jetty.websocket.api.Session;
 import org.eclipse.jetty.websocket.api.annotations.OnWebSocketError;
 import org.eclipse.jetty.websocket.api.annotations.OnWebSocketMessage;
 import org.eclipse.jetty.websocket.api.annotations.WebSocket;
+import requests.AnalysisRequest;
+import service.AnalysisService;
 import service.BadRequestException;
+import service.BotLevel;
+import service.BusyException;
+import service.Endgames;
+import service.GameLocks;
 import service.GameService;
 import service.TakenException;
 import service.GameService;
 import service.UnauthorizedException;
+import websocket.commands.AnalyzeCommand;
 import websocket.commands.MakeMoveCommand;
 import websocket.commands.UserGameCommand;
 import websocket.messages.ErrorMessage;
@@ -32,6 +39,7 @@ import websocket.messages.ServerMessage;
 import dataaccess.MySqlAuthAccess;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.sql.SQLException;
 import java.util.Map;
 import java.util.Objects;
@@ -55,11 +63,15 @@ public class WebSocketHandler {
             switch (type) {
                 case LEAVE:
                     UserGameCommand leaveCommand = new Gson().fromJson(json, UserGameCommand.class);
-                    leave(leaveCommand, session);
+                    synchronized (GameLocks.forGame(leaveCommand.getGameID())) {
+                        leave(leaveCommand, session);
+                    }
                     break;
                 case MAKE_MOVE:
                     MakeMoveCommand moveCommand = new Gson().fromJson(json, MakeMoveCommand.class);
-                    makeMove(moveCommand, session);
+                    synchronized (GameLocks.forGame(moveCommand.getGameID())) {
+                        makeMove(moveCommand, session);
+                    }
                     break;
                 case CONNECT:
                     UserGameCommand connectCommand = new Gson().fromJson(json, UserGameCommand.class);
@@ -67,7 +79,13 @@ public class WebSocketHandler {
                     break;
                 case RESIGN:
                     UserGameCommand resignCommand = new Gson().fromJson(json, UserGameCommand.class);
-                    resign(resignCommand, session);
+                    synchronized (GameLocks.forGame(resignCommand.getGameID())) {
+                        resign(resignCommand, session);
+                    }
+                    break;
+                case ANALYZE:
+                    AnalyzeCommand analyzeCommand = new Gson().fromJson(json, AnalyzeCommand.class);
+                    analyse(analyzeCommand, session);
                     break;
             }
         } catch (UnauthorizedException ex){
@@ -249,13 +267,27 @@ public class WebSocketHandler {
             return;
         }
 
-        try {
-            if (chessGame.getTeamTurn() != color) {
-                var errorMessage = new ErrorMessage("Error: it's not your turn");
-                connections.oneBroadcast(authToken, errorMessage);
-                return;
-            }
+        if (chessGame.getTeamTurn() != color) {
+            var errorMessage = new ErrorMessage("Error: it's not your turn");
+            connections.oneBroadcast(authToken, errorMessage);
+            return;
+        }
 
+        applyMove(game, color, username, authToken, chessMove);
+    }
+
+    /**
+     * Plays a move for the side to move, then tells everyone in the game and
+     * saves it. Both players' moves and bots' moves go through here.
+     *
+     * @param authToken the mover's token, which is left out of the move
+     *                  notification; empty for a bot
+     */
+    private void applyMove(GameData game, ChessGame.TeamColor color, String username, String authToken, ChessMove chessMove)
+            throws ResponseException, IOException, DataAccessException {
+        int gameID = game.gameID();
+        ChessGame chessGame = game.game();
+        try {
             chessGame.makeMove(chessMove);
             Map<String, Connection> gameConnections = connections.getConnectionsForGame(gameID);
 
@@ -270,8 +302,6 @@ public class WebSocketHandler {
                 connections.oneBroadcast(token, loadGameMessage);
             }
 
-            MySqlGameAccess gameAccess = new MySqlGameAccess();
-            gameAccess.updateGame(game);
             ChessGame.TeamColor opColor = (color == ChessGame.TeamColor.WHITE) ? ChessGame.TeamColor.BLACK : ChessGame.TeamColor.WHITE;
             String opUsername;
             if (opColor == ChessGame.TeamColor.WHITE) {
@@ -279,26 +309,39 @@ public class WebSocketHandler {
             } else {
                 opUsername = game.blackUsername();
             }
-            if (chessGame.isInCheckmate(opColor)) {
-                var notificationMessage = new NotificationMessage(String.format("%s is in checkmate", opUsername));
-                connections.broadcast(gameID, "", notificationMessage);
-                chessGame.setGameOver(true);
-            } else if (chessGame.isInCheck(opColor)) {
-                var notificationMessage = new NotificationMessage(String.format("%s is in check", opUsername));
-                connections.broadcast(gameID, "", notificationMessage);
+            NotificationMessage statusMessage = null;
+            switch (chessGame.status(opColor, Endgames.TABLEBASES)) {
+                case CHECKMATE:
+                    statusMessage = new NotificationMessage(String.format("%s is in checkmate", opUsername));
+                    chessGame.setGameOver(true);
+                    break;
+                case CHECK:
+                    statusMessage = new NotificationMessage(String.format("%s is in check", opUsername));
+                    break;
+                case STALEMATE:
+                    statusMessage = new NotificationMessage(String.format("%s is in stalemate", opColor));
+                    chessGame.setGameOver(true);
+                    break;
+                case THREEFOLD_REPETITION:
+                    statusMessage = new NotificationMessage("The game is drawn by threefold repetition");
+                    chessGame.setGameOver(true);
+                    break;
+                case FIFTY_MOVE_RULE:
+                    statusMessage = new NotificationMessage("The game is drawn by the fifty-move rule");
+                    chessGame.setGameOver(true);
+                    break;
+                case TABLEBASE_DRAW:
+                    statusMessage = new NotificationMessage("The game is drawn: neither side can force a win from here");
+                    chessGame.setGameOver(true);
+                    break;
             }
-
-            if (chessGame.isInStalemate(opColor)) {
-                var notificationMessage = new NotificationMessage(String.format("%s is in stalemate", opColor));
-                connections.broadcast(gameID, "", notificationMessage);
-                chessGame.setGameOver(true);
+            if (statusMessage != null) {
+                connections.broadcast(gameID, "", statusMessage);
             }
 
-            if (chessGame.getTeamTurn() == ChessGame.TeamColor.WHITE) {
-                chessGame.setTeamTurn(ChessGame.TeamColor.BLACK);
-            } else {
-                chessGame.setTeamTurn(ChessGame.TeamColor.WHITE);
-            }
+            // saved after the status check so a finished game is stored as over
+            MySqlGameAccess gameAccess = new MySqlGameAccess();
+            gameAccess.updateGame(game);
 
             try {
                 String endCords;
@@ -318,6 +361,96 @@ public class WebSocketHandler {
         } catch (InvalidMoveException | SQLException e) {
             var errorMessage = new ErrorMessage("Error: invalid move - " + e.getMessage());
             connections.oneBroadcast(authToken, errorMessage);
+            return;
+        }
+
+        requestBotMove(game);
+    }
+
+    /**
+     * Asks the bot to move if one is seated on the side to move
+     */
+    private void requestBotMove(GameData game) throws IOException {
+        ChessGame chessGame = game.game();
+        if (chessGame.getGameOver()) {
+            return;
+        }
+        ChessGame.TeamColor turn = chessGame.getTeamTurn();
+        String botUsername = turn == ChessGame.TeamColor.WHITE ? game.whiteUsername() : game.blackUsername();
+        BotLevel level = BotLevel.fromUsername(botUsername);
+        if (level == null) {
+            return;
+        }
+        if (!BotPlayers.requestMove(game.gameID(), chessGame, level, this::playBotMove)) {
+            var notification = new NotificationMessage(String.format("%s is busy, try again in a moment", botUsername));
+            connections.broadcast(game.gameID(), "", notification);
+        }
+    }
+
+    /**
+     * Plays a bot's chosen move, unless the game has moved on while it was
+     * thinking. Runs on a bot thread, under the game's lock so the game
+     * cannot be resigned or left between the check and the save.
+     */
+    private void playBotMove(int gameID, ChessMove move, long positionKey) {
+        synchronized (GameLocks.forGame(gameID)) {
+            playBotMoveLocked(gameID, move, positionKey);
+        }
+    }
+
+    private void playBotMoveLocked(int gameID, ChessMove move, long positionKey) {
+        try {
+            GameData game = new MySqlGameAccess().getGame(gameID);
+            if (game == null || game.game().getGameOver() || game.game().zobristKey() != positionKey) {
+                return;
+            }
+            ChessGame.TeamColor color = game.game().getTeamTurn();
+            String username = color == ChessGame.TeamColor.WHITE ? game.whiteUsername() : game.blackUsername();
+            if (BotLevel.fromUsername(username) == null) {
+                return;
+            }
+            applyMove(game, color, username, "", move);
+        } catch (ResponseException | IOException | DataAccessException | SQLException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Queues an analysis whose depths are sent back to the asking session
+     * only, as they finish. The session is not registered with the
+     * connection manager, which keeps one connection per auth token, so a
+     * player analysing mid-game still gets their game's broadcasts.
+     */
+    private void analyse(AnalyzeCommand command, Session session) throws IOException {
+        Connection reply = new Connection(command.getAuthToken(), 0, session);
+        Gson gson = new Gson();
+        String username;
+        try {
+            AuthData auth = new MySqlAuthAccess().getAuth(command.getAuthToken());
+            username = auth == null ? null : auth.username();
+        } catch (DataAccessException | SQLException e) {
+            throw new RuntimeException(e);
+        }
+        if (username == null) {
+            reply.send(gson.toJson(new ErrorMessage("Error: bad auth token")));
+            return;
+        }
+
+        try {
+            AnalysisService analysisService = new AnalysisService(new MySqlGameAccess());
+            AnalysisRequest request = new AnalysisRequest(command.getFen(), command.getGameID(), command.getDepth(),
+                    command.getLines());
+            analysisService.analyse(request, username, message -> {
+                try {
+                    reply.send(gson.toJson(message));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (BadRequestException | BusyException e) {
+            reply.send(gson.toJson(new ErrorMessage(e.getMessage())));
+        } catch (DataAccessException | SQLException e) {
+            reply.send(gson.toJson(new ErrorMessage("Error: failed to get game data")));
         }
     }
 
@@ -359,5 +492,7 @@ public class WebSocketHandler {
         connections.broadcast(gameID, authToken, notification);
         var loadGameMessage = new LoadGameMessage(chessGame, color);
         connections.oneBroadcast(authToken, loadGameMessage);
+        // a bot holding the first move, or one that was dropped while busy, starts here
+        requestBotMove(game);
     }
 }
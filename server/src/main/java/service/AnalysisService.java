@@ -0,0 +1,154 @@
+package service;
+
+import chess.ChessGame;
+import chess.engine.Engine;
+import chess.engine.SearchLimits;
+import chess.engine.SearchResult;
+import dataaccess.DataAccessException;
+import dataaccess.GameAccess;
+import model.GameData;
+import requests.AnalysisRequest;
+import websocket.messages.AnalysisMessage;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Runs engine analysis of positions for players and spectators.
+ * <p>
+ * Analysis jobs run on their own small pool with a bounded queue, apart from
+ * the bots' pool, and each user may only have a few jobs queued or running at
+ * once. A job that does not fit is turned away with a {@link BusyException},
+ * so analysis can never take the threads games need.
+ */
+public class AnalysisService {
+    public static final int DEFAULT_DEPTH = 16;
+    public static final int MAX_DEPTH = 24;
+    public static final int MAX_LINES = 5;
+    public static final long MAX_MILLIS = 10_000;
+    public static final int MAX_JOBS_PER_USER = 2;
+
+    private static final int THREADS = Math.max(1, Runtime.getRuntime().availableProcessors() / 4);
+    private static final int QUEUE_SIZE = 16;
+    /**
+     * The most jobs queued or running at once; any more are turned away
+     */
+    public static final int MAX_CONCURRENT_JOBS = THREADS + QUEUE_SIZE;
+
+    private static final AtomicInteger THREAD_COUNT = new AtomicInteger();
+    private static final ThreadPoolExecutor POOL = new ThreadPoolExecutor(THREADS, THREADS,
+            0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(QUEUE_SIZE), task -> {
+                Thread thread = new Thread(task, "analysis-" + THREAD_COUNT.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+    private static final ThreadLocal<Engine> ENGINES = ThreadLocal.withInitial(() -> {
+        Engine engine = new Engine();
+        engine.setTablebases(Endgames.TABLEBASES);
+        return engine;
+    });
+    // jobs queued or running per user; users with none have no entry
+    private static final Map<String, Integer> JOBS = new ConcurrentHashMap<>();
+
+    private final GameAccess gameAccess;
+
+    public AnalysisService(GameAccess gameAccess) {
+        this.gameAccess = gameAccess;
+    }
+
+    /**
+     * Queues an analysis. The listener is called on an analysis thread with
+     * each finished depth and then once more, with {@code done} set, for the
+     * final result. An exception thrown by the listener ends the analysis.
+     *
+     * @return completes when the analysis ends
+     */
+    public Future<?> analyse(AnalysisRequest request, String username, Consumer<AnalysisMessage> listener)
+            throws DataAccessException {
+        if (request == null) {
+            throw new BadRequestException("Error: bad request");
+        }
+        ChessGame game = position(request, username);
+        String fen = game.toFen();
+        int depth = request.depth() == null ? DEFAULT_DEPTH : request.depth();
+        int lines = request.lines() == null ? 1 : request.lines();
+        if (depth < 1 || depth > MAX_DEPTH || lines < 1 || lines > MAX_LINES) {
+            throw new BadRequestException("Error: depth must be 1 to " + MAX_DEPTH + " and lines 1 to " + MAX_LINES);
+        }
+        SearchLimits limits = new SearchLimits(depth, Long.MAX_VALUE, MAX_MILLIS);
+
+        if (!startJob(username)) {
+            throw new BusyException("Error: you already have " + MAX_JOBS_PER_USER + " analyses running");
+        }
+        try {
+            return POOL.submit(() -> {
+                try {
+                    List<SearchResult> results = ENGINES.get().analyse(game, limits, lines,
+                            iteration -> listener.accept(new AnalysisMessage(fen, iteration, false)));
+                    listener.accept(new AnalysisMessage(fen, results, true));
+                } finally {
+                    endJob(username);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            endJob(username);
+            throw new BusyException("Error: the server is busy, try again in a moment");
+        }
+    }
+
+    // counts a job against the user, unless they are at the limit
+    private static boolean startJob(String username) {
+        boolean[] started = new boolean[1];
+        JOBS.compute(username, (name, count) -> {
+            int current = count == null ? 0 : count;
+            if (current >= MAX_JOBS_PER_USER) {
+                return count;
+            }
+            started[0] = true;
+            return current + 1;
+        });
+        return started[0];
+    }
+
+    // users with no jobs left are dropped, so the map only holds users with work queued or running
+    private static void endJob(String username) {
+        JOBS.computeIfPresent(username, (name, count) -> count > 1 ? count - 1 : null);
+    }
+
+    /**
+     * @return how many users have analyses queued or running
+     */
+    static int activeUsers() {
+        return JOBS.size();
+    }
+
+    private ChessGame position(AnalysisRequest request, String username) throws DataAccessException {
+        if (request.fen() != null) {
+            try {
+                return ChessGame.fromFen(request.fen());
+            } catch (IllegalArgumentException e) {
+                throw new BadRequestException(e.getMessage());
+            }
+        }
+        if (request.gameID() == null) {
+            throw new BadRequestException("Error: bad request");
+        }
+        GameData data = gameAccess.getGame(request.gameID());
+        if (data == null || data.game() == null) {
+            throw new BadRequestException("Error: could not find game");
+        }
+        boolean playing = username.equals(data.whiteUsername()) || username.equals(data.blackUsername());
+        if (playing && !data.game().getGameOver()) {
+            throw new BadRequestException("Error: you cannot analyse a game you are playing until it is over");
+        }
+        return data.game();
+    }
+}
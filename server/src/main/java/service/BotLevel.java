@@ -0,0 +1,50 @@
+package service;
+
+import chess.engine.SearchLimits;
+
+/**
+ * The computer opponents a game can seat. A bot sits in a game under a
+ * reserved username, and its strength is the node and time budget it gets
+ * for each move.
+ */
+public enum BotLevel {
+    EASY(2_000, 100),
+    MEDIUM(50_000, 1_000),
+    HARD(1_000_000, 5_000);
+
+    /**
+     * Usernames starting with this are reserved for bots
+     */
+    public static final String PREFIX = "bot-";
+
+    private final long nodes;
+    private final long millis;
+
+    BotLevel(long nodes, long millis) {
+        this.nodes = nodes;
+        this.millis = millis;
+    }
+
+    public SearchLimits limits() {
+        return new SearchLimits(SearchLimits.MAX_DEPTH, nodes, millis);
+    }
+
+    public String username() {
+        return PREFIX + name().toLowerCase();
+    }
+
+    /**
+     * @return the bot seated under a username, or null if it is not a bot's
+     */
+    public static BotLevel fromUsername(String username) {
+        if (username == null || !username.startsWith(PREFIX)) {
+            return null;
+        }
+        for (BotLevel level : values()) {
+            if (level.username().equals(username)) {
+                return level;
+            }
+        }
+        return null;
+    }
+}
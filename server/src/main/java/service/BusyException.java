@@ -0,0 +1,7 @@
+package service;
+
+public class BusyException extends RuntimeException {
+    public BusyException(String message) {
+        super(message);
+    }
+}
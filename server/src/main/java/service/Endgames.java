@@ -0,0 +1,19 @@
+package service;
+
+import chess.tablebase.Tablebases;
+
+import java.nio.file.Path;
+
+/**
+ * The server's endgame tablebases, read from the directory named by the
+ * {@code chess.tablebases} system property, {@code tablebases} by default.
+ * Bots and analysis search with them, and games that reach a position they
+ * show is drawn end as a draw.
+ */
+public final class Endgames {
+    public static final Tablebases TABLEBASES =
+            Tablebases.open(Path.of(System.getProperty("chess.tablebases", "tablebases")));
+
+    private Endgames() {
+    }
+}
@@ -0,0 +1,27 @@
+package service;
+
+/**
+ * Locks that serialize changes to a game. Whatever reads a game, changes it
+ * and saves it back holds the game's lock throughout, so a bot's move saved
+ * from a bot thread cannot undo a resignation, a player leaving or a join
+ * that happened while the bot was thinking.
+ * <p>
+ * Games share a fixed set of locks picked by ID, so there is nothing to clean
+ * up when a game ends; two games rarely wait on each other.
+ */
+public final class GameLocks {
+    private static final Object[] LOCKS = new Object[64];
+
+    static {
+        for (int i = 0; i < LOCKS.length; i++) {
+            LOCKS[i] = new Object();
+        }
+    }
+
+    private GameLocks() {
+    }
+
+    public static Object forGame(int gameID) {
+        return LOCKS[Math.floorMod(gameID, LOCKS.length)];
+    }
+}
@@ -1,7 +1,9 @@
 package service;
 
+import chess.ChessGame;
 import dataaccess.*;
 import model.GameData;
+import requests.BotJoinRequest;
 import requests.CreateRequest;
 import requests.JoinRequest;
 import results.CreateResult;
@@ -58,6 +60,33 @@ public class GameService {
     }
 
     public void join(JoinRequest joinRequest, String username) throws DataAccessException, SQLException {
-        gameAccess.joinGame(joinRequest.playerColor(), joinRequest.gameID(), username);
+        synchronized (GameLocks.forGame(joinRequest.gameID())) {
+            gameAccess.joinGame(joinRequest.playerColor(), joinRequest.gameID(), username);
+        }
+    }
+
+    /**
+     * Seats a computer opponent in a game, the same way a player joins. Only
+     * a player already seated in the game may add one, opposite themselves.
+     *
+     * @param username the player asking for the bot
+     */
+    public void joinBot(BotJoinRequest botJoinRequest, String username) throws DataAccessException, SQLException {
+        if (botJoinRequest.level() == null || botJoinRequest.playerColor() == null) {
+            throw new BadRequestException("Error: bad request");
+        }
+        synchronized (GameLocks.forGame(botJoinRequest.gameID())) {
+            GameData game = gameAccess.getGame(botJoinRequest.gameID());
+            if (game == null) {
+                throw new BadRequestException("Error: bad request");
+            }
+            String opponent = botJoinRequest.playerColor() == ChessGame.TeamColor.WHITE
+                    ? game.blackUsername() : game.whiteUsername();
+            if (username == null || !username.equals(opponent)) {
+                throw new ForbiddenException("Error: you can only add a bot to play against you");
+            }
+            gameAccess.joinGame(botJoinRequest.playerColor(), botJoinRequest.gameID(),
+                    botJoinRequest.level().username());
+        }
     }
 }
@@ -30,6 +30,9 @@ public class UserService {
         if (registerRequest.username() == null) {
             throw new BadRequestException("Error: bad request");
         }
+        if (registerRequest.username().startsWith(BotLevel.PREFIX)) {
+            throw new BadRequestException("Error: usernames starting with " + BotLevel.PREFIX + " are reserved");
+        }
         UserData user = userAccess.getUser(registerRequest.username());
         if (user == null) {
             String hashedPassword = BCrypt.hashpw(registerRequest.password(), BCrypt.gensalt());
@@ -276,6 +276,24 @@ public class WebSocketTests {
         leave(white, gameID, Set.of(black, observer), Set.of(white2, black2, observer2), "leave from game 1");
     }
 
+    @Test
+    @Order(11)
+    @DisplayName("Analyze During Game")
+    public void analyzeDuringGame() {
+        setupNormalGame();
+
+        //analysis replies go to the asking player only
+        TestCommand analyzeCommand = new TestAnalyzeCommand(black.authToken(),
+                "rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq - 0 1", 1, 1);
+        Map<String, List<TestMessage>> actualMessages = environment.exchange(black.username(), analyzeCommand,
+                expectedMessages(black, 2, Set.of(), 0, Set.of(white, observer)), waitTime);
+        assertMessages(black.username(), types(ANALYSIS, ANALYSIS), actualMessages.get(black.username()), "analyze");
+
+        //black must still be connected to the game afterwards
+        ChessMove move = new ChessMove(new ChessPosition(2, 5), new ChessPosition(3, 5), null);
+        makeMove(white, gameID, move, true, false, Set.of(black, observer), Set.of(), "move after analyze");
+    }
+
     private void setupNormalGame() {
         connectToGame(white, gameID, true, Set.of(), Set.of(), "white player connect");
         connectToGame(black, gameID, true, Set.of(white), Set.of(), "black player connect");
@@ -431,4 +449,17 @@ public class WebSocketTests {
     }
 
     private record WebsocketUser(String username, String authToken) { }
+
+    private static class TestAnalyzeCommand extends TestCommand {
+        private final String fen;
+        private final Integer depth;
+        private final Integer lines;
+
+        TestAnalyzeCommand(String authToken, String fen, Integer depth, Integer lines) {
+            super(UserGameCommand.CommandType.ANALYZE, authToken, null);
+            this.fen = fen;
+            this.depth = depth;
+            this.lines = lines;
+        }
+    }
 }
@@ -12,9 +12,11 @@ import results.CreateResult;
 import results.ListResult;
 import results.LoginResult;
 import results.RegisterResult;
+import websocket.messages.AnalysisMessage;
 
 import java.sql.SQLException;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -209,6 +211,88 @@ public class ServiceTests {
 
     }
 
+    @Test
+    @DisplayName("Join Bot - Positive")
+    public void testJoinBotPositive() throws DataAccessException, SQLException {
+        CreateRequest createRequest = new CreateRequest("game1");
+        CreateResult createResult = gameService.create(createRequest);
+        int gameID = createResult.gameID();
+        gameService.join(new JoinRequest(ChessGame.TeamColor.WHITE, gameID), "user1");
+
+        gameService.joinBot(new BotJoinRequest(ChessGame.TeamColor.BLACK, gameID, BotLevel.MEDIUM), "user1");
+        GameData game = gameAccess.getGame(gameID);
+
+        assertEquals("bot-medium", game.blackUsername());
+        assertEquals(BotLevel.MEDIUM, BotLevel.fromUsername(game.blackUsername()));
+    }
+
+    @Test
+    @DisplayName("Join Bot - Negative")
+    public void testJoinBotNegative() throws DataAccessException {
+        CreateRequest createRequest = new CreateRequest("game1");
+        CreateResult createResult = gameService.create(createRequest);
+        int gameID = createResult.gameID();
+
+        Exception exception = assertThrows(BadRequestException.class, () -> {
+            gameService.joinBot(new BotJoinRequest(ChessGame.TeamColor.BLACK, gameID, null), "user1");
+        });
+        assertEquals("Error: bad request", exception.getMessage());
+
+        assertThrows(BadRequestException.class, () -> {
+            userService.register(new RegisterRequest("bot-easy", "pass", "email@email.com"));
+        });
+    }
+
+    @Test
+    @DisplayName("Join Bot - Not A Player")
+    public void testJoinBotNotPlayer() throws DataAccessException, SQLException {
+        int gameID = gameService.create(new CreateRequest("game1")).gameID();
+        gameService.join(new JoinRequest(ChessGame.TeamColor.WHITE, gameID), "user1");
+
+        // someone else, and the seat next to their own
+        assertThrows(ForbiddenException.class, () ->
+                gameService.joinBot(new BotJoinRequest(ChessGame.TeamColor.BLACK, gameID, BotLevel.EASY), "user2"));
+        assertThrows(ForbiddenException.class, () ->
+                gameService.joinBot(new BotJoinRequest(ChessGame.TeamColor.WHITE, gameID, BotLevel.EASY), "user1"));
+        assertNull(gameAccess.getGame(gameID).blackUsername());
+    }
+
+    @Test
+    @DisplayName("Analyse - Positive")
+    public void testAnalysePositive() throws Exception {
+        List<AnalysisMessage> messages = new CopyOnWriteArrayList<>();
+        AnalysisRequest request = new AnalysisRequest(new ChessGame().toFen(), null, 3, 2);
+        new AnalysisService(gameAccess).analyse(request, "user1", messages::add).get();
+
+        assertEquals(4, messages.size());
+        assertEquals(1, messages.get(0).getDepth());
+        AnalysisMessage last = messages.get(messages.size() - 1);
+        assertTrue(last.isDone());
+        assertEquals(3, last.getDepth());
+        assertEquals(2, last.getLines().size());
+        // a user with nothing running is no longer tracked
+        assertEquals(0, AnalysisService.activeUsers());
+    }
+
+    @Test
+    @DisplayName("Analyse - Negative")
+    public void testAnalyseNegative() throws DataAccessException, SQLException {
+        AnalysisService analysisService = new AnalysisService(gameAccess);
+        assertThrows(BadRequestException.class, () -> {
+            analysisService.analyse(new AnalysisRequest("not a fen", null, 3, 1), "user1", message -> { });
+        });
+        assertThrows(BadRequestException.class, () -> {
+            analysisService.analyse(new AnalysisRequest(null, null, 3, 1), "user1", message -> { });
+        });
+
+        CreateResult createResult = gameService.create(new CreateRequest("game1"));
+        gameService.join(new JoinRequest(ChessGame.TeamColor.WHITE, createResult.gameID()), "user1");
+        AnalysisRequest ownGame = new AnalysisRequest(null, createResult.gameID(), 3, 1);
+        assertThrows(BadRequestException.class, () -> {
+            analysisService.analyse(ownGame, "user1", message -> { });
+        });
+    }
+
     @Test
     @DisplayName("Logout - Positive")
     public void testLogoutPositive() throws DataAccessException {
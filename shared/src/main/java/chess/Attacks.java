@@ -0,0 +1,140 @@
+package chess;
+
+/**
+ * Precomputed attack tables, indexed by square (a1 = 0, h8 = 63).
+ * <p>
+ * Knight, king and pawn attacks are looked up directly. Sliding attacks use
+ * one ray mask per direction and square; the first blocker on a ray is found
+ * with a single bit scan and everything behind it is masked off, so no
+ * squares are walked one at a time.
+ * <p>
+ * {@link #between} and {@link #line} relate two squares on a shared rank,
+ * file or diagonal, for finding pins and the squares that block a check.
+ */
+public final class Attacks {
+    public static final int NORTH = 0;
+    public static final int NORTH_EAST = 1;
+    public static final int EAST = 2;
+    public static final int SOUTH_EAST = 3;
+    public static final int SOUTH = 4;
+    public static final int SOUTH_WEST = 5;
+    public static final int WEST = 6;
+    public static final int NORTH_WEST = 7;
+
+    private static final int[] DIRECTION_ROWS = {1, 1, 0, -1, -1, -1, 0, 1};
+    private static final int[] DIRECTION_COLS = {0, 1, 1, 1, 0, -1, -1, -1};
+    private static final int[][] KNIGHT_STEPS = {{2, 1}, {2, -1}, {-2, 1}, {-2, -1}, {1, 2}, {-1, 2}, {1, -2}, {-1, -2}};
+
+    private static final long[] KNIGHT = new long[64];
+    private static final long[] KING = new long[64];
+    private static final long[][] PAWN = new long[2][64];
+    private static final long[][] RAYS = new long[8][64];
+    private static final long[][] BETWEEN = new long[64][64];
+    private static final long[][] LINE = new long[64][64];
+
+    static {
+        for (int square = 0; square < 64; square++) {
+            int row = square >>> 3;
+            int col = square & 7;
+            for (int[] step : KNIGHT_STEPS) {
+                KNIGHT[square] |= bit(row + step[0], col + step[1]);
+            }
+            for (int dir = 0; dir < 8; dir++) {
+                KING[square] |= bit(row + DIRECTION_ROWS[dir], col + DIRECTION_COLS[dir]);
+                for (int r = row + DIRECTION_ROWS[dir], c = col + DIRECTION_COLS[dir];
+                     r >= 0 && r <= 7 && c >= 0 && c <= 7;
+                     r += DIRECTION_ROWS[dir], c += DIRECTION_COLS[dir]) {
+                    RAYS[dir][square] |= 1L << (r * 8 + c);
+                }
+            }
+            PAWN[ChessGame.TeamColor.WHITE.ordinal()][square] = bit(row + 1, col - 1) | bit(row + 1, col + 1);
+            PAWN[ChessGame.TeamColor.BLACK.ordinal()][square] = bit(row - 1, col - 1) | bit(row - 1, col + 1);
+        }
+        for (int square = 0; square < 64; square++) {
+            for (int dir = 0; dir < 8; dir++) {
+                long ray = RAYS[dir][square];
+                long line = ray | RAYS[(dir + 4) & 7][square] | 1L << square;
+                for (long rest = ray; rest != 0; rest &= rest - 1) {
+                    int other = Long.numberOfTrailingZeros(rest);
+                    BETWEEN[square][other] = ray & ~RAYS[dir][other] & ~(1L << other);
+                    LINE[square][other] = line;
+                }
+            }
+        }
+    }
+
+    private Attacks() {
+    }
+
+    private static long bit(int row, int col) {
+        if (row < 0 || row > 7 || col < 0 || col > 7) {
+            return 0;
+        }
+        return 1L << (row * 8 + col);
+    }
+
+    public static long knight(int square) {
+        return KNIGHT[square];
+    }
+
+    public static long king(int square) {
+        return KING[square];
+    }
+
+    /**
+     * @return the squares a pawn of the given color standing on square attacks
+     */
+    public static long pawn(ChessGame.TeamColor color, int square) {
+        return PAWN[color.ordinal()][square];
+    }
+
+    /**
+     * @return every square from (but not including) square to the board edge
+     */
+    public static long ray(int direction, int square) {
+        return RAYS[direction][square];
+    }
+
+    /**
+     * @return the squares strictly between two squares on a shared line, or
+     * nothing if they do not share one
+     */
+    public static long between(int from, int to) {
+        return BETWEEN[from][to];
+    }
+
+    /**
+     * @return the whole rank, file or diagonal through both squares, edge to
+     * edge, or nothing if they do not share one
+     */
+    public static long line(int from, int to) {
+        return LINE[from][to];
+    }
+
+    public static long bishop(int square, long occupied) {
+        return slide(NORTH_EAST, square, occupied) | slide(SOUTH_EAST, square, occupied)
+                | slide(SOUTH_WEST, square, occupied) | slide(NORTH_WEST, square, occupied);
+    }
+
+    public static long rook(int square, long occupied) {
+        return slide(NORTH, square, occupied) | slide(EAST, square, occupied)
+                | slide(SOUTH, square, occupied) | slide(WEST, square, occupied);
+    }
+
+    public static long queen(int square, long occupied) {
+        return bishop(square, occupied) | rook(square, occupied);
+    }
+
+    // squares along one ray up to and including the first blocker
+    private static long slide(int direction, int square, long occupied) {
+        long ray = RAYS[direction][square];
+        long blockers = ray & occupied;
+        if (blockers != 0) {
+            int blocker = direction <= EAST || direction == NORTH_WEST
+                    ? Long.numberOfTrailingZeros(blockers)
+                    : 63 - Long.numberOfLeadingZeros(blockers);
+            ray ^= RAYS[direction][blocker];
+        }
+        return ray;
+    }
+}
@@ -1,19 +1,41 @@
 package chess;
 
+import com.google.gson.annotations.JsonAdapter;
+
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
-import java.util.Objects;
 
 /**
  * A chessboard that can hold and rearrange chess pieces.
  * <p>
  * Note: You can add to this class, but you may not alter
  * signature of the existing methods.
+ * <p>
+ * Pieces are stored as twelve bitboards, one per color and piece type, where
+ * bit {@code (row - 1) * 8 + (col - 1)} is set when that piece occupies the
+ * square. Per-team and total occupancy masks are kept alongside so lookups
+ * never have to sweep the whole board, as are a {@link Zobrist} key of the
+ * placement and the {@link PieceSquareTables} evaluation terms, which every
+ * add, move and capture updates incrementally.
  */
+@JsonAdapter(ChessBoardAdapter.class)
 public class ChessBoard {
+    private final long[] pieceBoards = new long[12];
+    private final long[] teamBoards = new long[2];
+    private long occupied;
+    private long zobristKey;
+    private int middlegame;
+    private int endgame;
+    private int phase;
+
     @Override
     public String toString() {
+        // the same text as when the board was a grid of pieces, rank 1 first
+        ChessPiece[][] squares = new ChessPiece[8][8];
+        for (int square = 0; square < 64; square++) {
+            squares[square >>> 3][square & 7] = pieceAt(square);
+        }
         return "ChessBoard{" +
                 "squares=" + Arrays.deepToString(squares) +
                 '}';
@@ -25,25 +47,25 @@ public class ChessBoard {
             return false;
         }
         ChessBoard that = (ChessBoard) o;
-        return Objects.deepEquals(squares, that.squares);
+        return zobristKey == that.zobristKey && Arrays.equals(pieceBoards, that.pieceBoards);
     }
 
     @Override
     public int hashCode() {
-        return Arrays.deepHashCode(squares);
+        return Long.hashCode(zobristKey);
     }
 
-    private ChessPiece[][] squares = new ChessPiece[8][8];
     public ChessBoard() {
     }
 
     public void duplicateBoard(ChessBoard og) {
-        for (int row = 0; row <= 7; row++) {
-            for (int col = 0; col <= 7; col++) {
-                ChessPosition pos = new ChessPosition(row + 1, col + 1);
-                this.squares[row][col] = og.getPiece(pos);
-            }
-        }
+        System.arraycopy(og.pieceBoards, 0, this.pieceBoards, 0, pieceBoards.length);
+        System.arraycopy(og.teamBoards, 0, this.teamBoards, 0, teamBoards.length);
+        this.occupied = og.occupied;
+        this.zobristKey = og.zobristKey;
+        this.middlegame = og.middlegame;
+        this.endgame = og.endgame;
+        this.phase = og.phase;
     }
 
     /**
@@ -53,12 +75,126 @@ public class ChessBoard {
      * @param piece    the piece to add
      */
     public void addPiece(ChessPosition position, ChessPiece piece) {
-        squares[position.getRow() - 1][position.getColumn() - 1] = piece;
+        if (!onBoard(position)) {
+            throw new IllegalArgumentException("Error: " + position + " is off the board");
+        }
+        int square = square(position);
+        clearSquare(square);
+        if (piece != null) {
+            setSquare(square, pieceIndex(piece.getTeamColor(), piece.getPieceType()));
+        }
     }
 
     public void movePiece(ChessPosition oldPos, ChessPosition newPos, ChessPiece piece) {
-        squares[oldPos.getRow() - 1][oldPos.getColumn() - 1] = null;
-        squares[newPos.getRow() - 1][newPos.getColumn() - 1] = piece;
+        clearSquare(square(oldPos));
+        addPiece(newPos, piece);
+    }
+
+    /**
+     * Plays a move in place, promoting the piece if the move names a
+     * promotion type, and returns a record that can take it back. The move is
+     * taken as an ordinary one, so it never castles or captures en passant;
+     * {@link ChessGame#makeMove} knows when a move does.
+     *
+     * @param move the move to play; it is not checked for legality
+     * @return the undo record to hand to {@link #unmakeMove}
+     */
+    public Undo makeMove(ChessMove move) {
+        int start = square(move.getStartPosition());
+        int moved = pieceIndexAt(start);
+        int captured = makeMove(Move.fromChessMove(move));
+        return new Undo(start, square(move.getEndPosition()), moved, captured);
+    }
+
+    /**
+     * Plays an encoded move in place without allocating. A castling move
+     * brings its rook along and an en passant capture removes the pawn it
+     * passed.
+     *
+     * @param move a move encoded with {@link Move}; it is not checked for legality
+     * @return the index of the captured piece, or -1 if none, to hand to
+     * {@link #unmakeMove(int, int)}
+     */
+    public int makeMove(int move) {
+        int from = Move.from(move);
+        int to = Move.to(move);
+        int moved = pieceIndexAt(from);
+        int captured;
+        if (Move.isEnPassant(move)) {
+            int victim = enPassantVictim(from, to);
+            captured = pieceIndexAt(victim);
+            clearSquare(victim);
+        } else {
+            captured = pieceIndexAt(to);
+            if (captured >= 0) {
+                clearSquare(to);
+            }
+        }
+        clearSquare(from);
+        int promotion = Move.promotionOrdinal(move);
+        setSquare(to, promotion < 0 ? moved : (moved / 6) * 6 + promotion);
+        if (Move.isCastle(move)) {
+            int rook = pieceIndexAt(castlingRookFrom(to));
+            clearSquare(castlingRookFrom(to));
+            setSquare(castlingRookTo(to), rook);
+        }
+        return captured;
+    }
+
+    /**
+     * Takes back an encoded move played with {@link #makeMove(int)}
+     *
+     * @param move     the move that was played
+     * @param captured the value makeMove returned for it
+     */
+    public void unmakeMove(int move, int captured) {
+        int from = Move.from(move);
+        int to = Move.to(move);
+        int placed = pieceIndexAt(to);
+        int moved = Move.isPromotion(move) ? (placed / 6) * 6 + ChessPiece.PieceType.PAWN.ordinal() : placed;
+        clearSquare(to);
+        setSquare(from, moved);
+        if (Move.isCastle(move)) {
+            int rook = pieceIndexAt(castlingRookTo(to));
+            clearSquare(castlingRookTo(to));
+            setSquare(castlingRookFrom(to), rook);
+        }
+        if (captured >= 0) {
+            setSquare(Move.isEnPassant(move) ? enPassantVictim(from, to) : to, captured);
+        }
+    }
+
+    // the pawn taken en passant stands beside the capturing pawn's start square
+    private static int enPassantVictim(int from, int to) {
+        return (from & ~7) | (to & 7);
+    }
+
+    // castling moves the king to the c or g file and the rook from the a or h file
+    static int castlingRookFrom(int kingTo) {
+        return (kingTo & 7) == 6 ? kingTo + 1 : kingTo - 2;
+    }
+
+    static int castlingRookTo(int kingTo) {
+        return (kingTo & 7) == 6 ? kingTo - 1 : kingTo + 1;
+    }
+
+    /**
+     * Restores the board to how it was before the move that produced the
+     * given undo record. Moves must be unmade in reverse order.
+     */
+    public void unmakeMove(Undo undo) {
+        clearSquare(undo.end());
+        setSquare(undo.start(), undo.moved());
+        if (undo.captured() >= 0) {
+            setSquare(undo.end(), undo.captured());
+        }
+    }
+
+    /**
+     * What a move replaced: the squares involved, the piece that moved and the
+     * piece it captured, or -1 if the end square was empty
+     */
+    public record Undo(int start, int end, int moved, int captured) {
     }
 
     /**
@@ -70,111 +206,309 @@ public class ChessBoard {
      */
 
     public ChessPiece getPiece(ChessPosition position) {
-        if (position.getRow() >= 1 && position.getRow() <= 8 && position.getColumn() >= 1 && position.getColumn() <= 8) {
-            return squares[position.getRow() - 1][position.getColumn() - 1];
+        if (onBoard(position)) {
+            return pieceAt(square(position));
         } else {
             return null;
         }
     }
 
+    /**
+     * @return the piece on a square index, or null if it is empty
+     */
+    public ChessPiece pieceAt(int square) {
+        int index = pieceIndexAt(square);
+        return index < 0 ? null : ChessPiece.of(index);
+    }
+
     public ChessPosition findKing(ChessGame.TeamColor color) {
-        ChessPiece king = new ChessPiece(color, ChessPiece.PieceType.KING);
-        for (int row = 0; row <= 7; row++) {
-            for (int col = 0; col <= 7; col++) {
-                if (squares[row][col] != null && squares[row][col].equals(king)) {
-                    ChessPosition pos;
-                    pos = new ChessPosition(row + 1, col + 1);
-                    return pos;
-                }
-            }
+        long king = pieceBoards[pieceIndex(color, ChessPiece.PieceType.KING)];
+        if (king == 0) {
+            return null;
         }
-        return null;
+        return position(Long.numberOfTrailingZeros(king));
     }
 
     public Collection<ChessPosition> findPiece(ChessPiece piece) {
-        Collection<ChessPosition> positions = new ArrayList<>();
-        ChessPosition pos;
-
-        for (int row = 0; row <= 7; row++) {
-            for (int col = 0; col <= 7; col++) {
-                if (squares[row][col] != null && squares[row][col].equals(piece)) {
-                    pos = new ChessPosition(row + 1, col + 1);
-                    positions.add(pos);
-                }
+        return positions(pieceBoards[pieceIndex(piece.getTeamColor(), piece.getPieceType())]);
+    }
+
+    public Collection<ChessPosition> findTeamPosition(ChessGame.TeamColor color) {
+        return positions(teamBoards[color.ordinal()]);
+    }
+
+    /**
+     * @return bitboard of every square holding the given piece
+     */
+    public long pieces(ChessGame.TeamColor color, ChessPiece.PieceType type) {
+        return pieceBoards[pieceIndex(color, type)];
+    }
+
+    /**
+     * @return bitboard of every square holding a piece of the given team
+     */
+    public long team(ChessGame.TeamColor color) {
+        return teamBoards[color.ordinal()];
+    }
+
+    /**
+     * @return the Zobrist key of the piece placement; see {@link ChessGame#zobristKey}
+     * for a key that also covers the side to move
+     */
+    public long zobristKey() {
+        return zobristKey;
+    }
+
+    /**
+     * @return the summed {@link PieceSquareTables} middlegame values of every
+     * piece, white minus black, kept up to date as pieces move
+     */
+    public int middlegameScore() {
+        return middlegame;
+    }
+
+    /**
+     * @return the summed {@link PieceSquareTables} endgame values of every
+     * piece, white minus black
+     */
+    public int endgameScore() {
+        return endgame;
+    }
+
+    /**
+     * @return the game phase, from {@link PieceSquareTables#MAX_PHASE} with all
+     * pieces on the board down to 0 with only kings and pawns; promotions can
+     * push it above the maximum
+     */
+    public int phase() {
+        return phase;
+    }
+
+    /**
+     * @return bitboard of every occupied square
+     */
+    public long occupied() {
+        return occupied;
+    }
+
+    public boolean isOccupied(ChessPosition position) {
+        return onBoard(position) && (occupied & (1L << square(position))) != 0;
+    }
+
+    /**
+     * Determines if any piece of the given team could capture on a square.
+     * Rather than generating the attacker's moves, this looks outward from the
+     * square using the {@link Attacks} tables for each piece type.
+     *
+     * @param position the square being tested
+     * @param byColor  the team that may be attacking it
+     * @return True if the square is attacked
+     */
+    public boolean isSquareAttacked(ChessPosition position, ChessGame.TeamColor byColor) {
+        return isSquareAttacked(square(position), byColor);
+    }
+
+    boolean isSquareAttacked(int square, ChessGame.TeamColor byColor) {
+        int base = byColor.ordinal() * 6;
+        if ((Attacks.knight(square) & pieceBoards[base + ChessPiece.PieceType.KNIGHT.ordinal()]) != 0) {
+            return true;
+        }
+        if ((Attacks.king(square) & pieceBoards[base + ChessPiece.PieceType.KING.ordinal()]) != 0) {
+            return true;
+        }
+
+        // a pawn attacks this square from wherever a defending pawn here would attack
+        ChessGame.TeamColor defender = byColor == ChessGame.TeamColor.WHITE
+                ? ChessGame.TeamColor.BLACK : ChessGame.TeamColor.WHITE;
+        if ((Attacks.pawn(defender, square) & pieceBoards[base + ChessPiece.PieceType.PAWN.ordinal()]) != 0) {
+            return true;
+        }
+
+        long queens = pieceBoards[base + ChessPiece.PieceType.QUEEN.ordinal()];
+        long diagonal = pieceBoards[base + ChessPiece.PieceType.BISHOP.ordinal()] | queens;
+        long straight = pieceBoards[base + ChessPiece.PieceType.ROOK.ordinal()] | queens;
+        return (diagonal != 0 && (Attacks.bishop(square, occupied) & diagonal) != 0)
+                || (straight != 0 && (Attacks.rook(square, occupied) & straight) != 0);
+    }
+
+    /**
+     * @return the pieces of the given team that attack a square, with sliding
+     * attacks blocked by the given occupancy rather than the board's own
+     */
+    long attackers(int square, ChessGame.TeamColor byColor, long occupied) {
+        int base = byColor.ordinal() * 6;
+        ChessGame.TeamColor defender = byColor == ChessGame.TeamColor.WHITE
+                ? ChessGame.TeamColor.BLACK : ChessGame.TeamColor.WHITE;
+        long queens = pieceBoards[base + ChessPiece.PieceType.QUEEN.ordinal()];
+        return Attacks.knight(square) & pieceBoards[base + ChessPiece.PieceType.KNIGHT.ordinal()]
+                | Attacks.king(square) & pieceBoards[base + ChessPiece.PieceType.KING.ordinal()]
+                | Attacks.pawn(defender, square) & pieceBoards[base + ChessPiece.PieceType.PAWN.ordinal()]
+                | Attacks.bishop(square, occupied) & (pieceBoards[base + ChessPiece.PieceType.BISHOP.ordinal()] | queens)
+                | Attacks.rook(square, occupied) & (pieceBoards[base + ChessPiece.PieceType.ROOK.ordinal()] | queens);
+    }
+
+    /**
+     * @return index 0-63 of a position, with a1 = 0 and h8 = 63
+     */
+    private static boolean onBoard(ChessPosition position) {
+        return position.getRow() >= 1 && position.getRow() <= 8 && position.getColumn() >= 1 && position.getColumn() <= 8;
+    }
+
+    public static int square(ChessPosition position) {
+        return (position.getRow() - 1) * 8 + position.getColumn() - 1;
+    }
+
+    public static ChessPosition position(int square) {
+        return ChessPosition.of(square);
+    }
+
+    /**
+     * @return index 0-11 of the bitboard holding the given color and piece type
+     */
+    public static int pieceIndex(ChessGame.TeamColor color, ChessPiece.PieceType type) {
+        return color.ordinal() * 6 + type.ordinal();
+    }
+
+    /**
+     * @return the index of the piece on a square, or -1 if it is empty
+     */
+    int pieceIndexAt(int square) {
+        long bit = 1L << square;
+        if ((occupied & bit) == 0) {
+            return -1;
+        }
+        int index = (teamBoards[0] & bit) != 0 ? 0 : 6;
+        int end = index + 6;
+        for (; index < end; index++) {
+            if ((pieceBoards[index] & bit) != 0) {
+                return index;
             }
         }
+        return -1;
+    }
 
-        return positions;
+    void setSquare(int square, int pieceIndex) {
+        long bit = 1L << square;
+        pieceBoards[pieceIndex] |= bit;
+        teamBoards[pieceIndex / 6] |= bit;
+        occupied |= bit;
+        zobristKey ^= Zobrist.piece(pieceIndex, square);
+        middlegame += PieceSquareTables.middlegame(pieceIndex, square);
+        endgame += PieceSquareTables.endgame(pieceIndex, square);
+        phase += PieceSquareTables.phase(pieceIndex);
     }
 
-    public Collection<ChessPosition> findTeamPosition(ChessGame.TeamColor color) {
-        ChessPiece piece = new ChessPiece(color, ChessPiece.PieceType.PAWN);
-        Collection<ChessPosition> positions = new ArrayList<>(findPiece(piece));
-        piece = new ChessPiece(color, ChessPiece.PieceType.ROOK);
-        positions.addAll(findPiece(piece));
-        piece = new ChessPiece(color, ChessPiece.PieceType.KNIGHT);
-        positions.addAll(findPiece(piece));
-        piece = new ChessPiece(color, ChessPiece.PieceType.KING);
-        positions.addAll(findPiece(piece));
-        piece = new ChessPiece(color, ChessPiece.PieceType.QUEEN);
-        positions.addAll(findPiece(piece));
-        piece = new ChessPiece(color, ChessPiece.PieceType.BISHOP);
-        positions.addAll(findPiece(piece));
+    void clearSquare(int square) {
+        int index = pieceIndexAt(square);
+        if (index < 0) {
+            return;
+        }
+        long bit = ~(1L << square);
+        pieceBoards[index] &= bit;
+        teamBoards[index / 6] &= bit;
+        occupied &= bit;
+        zobristKey ^= Zobrist.piece(index, square);
+        middlegame -= PieceSquareTables.middlegame(index, square);
+        endgame -= PieceSquareTables.endgame(index, square);
+        phase -= PieceSquareTables.phase(index);
+    }
 
+    private static Collection<ChessPosition> positions(long bits) {
+        Collection<ChessPosition> positions = new ArrayList<>(Long.bitCount(bits));
+        while (bits != 0) {
+            positions.add(position(Long.numberOfTrailingZeros(bits)));
+            bits &= bits - 1;
+        }
         return positions;
     }
 
+    /**
+     * Builds a board from the placement field of a FEN string
+     *
+     * @param placement ranks 8 down to 1 separated by '/', e.g. {@code 8/8/8/4k3/8/8/8/4K3}
+     * @throws IllegalArgumentException if the placement is malformed
+     */
+    public static ChessBoard fromFen(String placement) {
+        return Fen.readBoard(placement);
+    }
+
+    /**
+     * @return the placement field of a FEN string for this board
+     */
+    public String toFen() {
+        return Fen.write(this);
+    }
+
+    static char pieceChar(ChessPiece piece) {
+        char c = switch (piece.getPieceType()) {
+            case KING -> 'k';
+            case QUEEN -> 'q';
+            case BISHOP -> 'b';
+            case KNIGHT -> 'n';
+            case ROOK -> 'r';
+            case PAWN -> 'p';
+        };
+        return piece.getTeamColor() == ChessGame.TeamColor.WHITE ? Character.toUpperCase(c) : c;
+    }
+
     /**
      * Sets the board to the default starting board
      * (How the game of chess normally starts)
      */
     public void resetBoard() {
+        Arrays.fill(pieceBoards, 0);
+        Arrays.fill(teamBoards, 0);
+        occupied = 0;
+        zobristKey = 0;
+        middlegame = 0;
+        endgame = 0;
+        phase = 0;
 
         for (int i = 1; i <= 8; i++) {
-            ChessPosition pos = new ChessPosition(7, i);
-            addPiece(pos, new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.PAWN));
+            ChessPosition pos = ChessPosition.of(7, i);
+            addPiece(pos, ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.PAWN));
         }
 
         for (int i = 1; i <= 8; i++) {
-            ChessPosition pos = new ChessPosition(2, i);
-            addPiece(pos, new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN));
-        }
-
-        ChessPosition pos = new ChessPosition(8, 1);
-        addPiece(pos, new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.ROOK));
-        pos = new ChessPosition(8, 8);
-        addPiece(pos, new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.ROOK));
-        pos = new ChessPosition(1, 1);
-        addPiece(pos, new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.ROOK));
-        pos = new ChessPosition(1, 8);
-        addPiece(pos, new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.ROOK));
-
-        pos = new ChessPosition(8, 2);
-        addPiece(pos, new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KNIGHT));
-        pos = new ChessPosition(8, 7);
-        addPiece(pos, new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KNIGHT));
-        pos = new ChessPosition(1, 2);
-        addPiece(pos, new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KNIGHT));
-        pos = new ChessPosition(1, 7);
-        addPiece(pos, new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KNIGHT));
-
-        pos = new ChessPosition(8, 3);
-        addPiece(pos, new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.BISHOP));
-        pos = new ChessPosition(8, 6);
-        addPiece(pos, new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.BISHOP));
-        pos = new ChessPosition(1, 3);
-        addPiece(pos, new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.BISHOP));
-        pos = new ChessPosition(1, 6);
-        addPiece(pos, new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.BISHOP));
-
-        pos = new ChessPosition(8,4);
-        addPiece(pos, new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.QUEEN));
-        pos = new ChessPosition(1,4);
-        addPiece(pos, new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.QUEEN));
-
-        pos = new ChessPosition(8,5);
-        addPiece(pos, new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KING));
-        pos = new ChessPosition(1,5);
-        addPiece(pos, new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KING));
+            ChessPosition pos = ChessPosition.of(2, i);
+            addPiece(pos, ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN));
+        }
+
+        ChessPosition pos = ChessPosition.of(8, 1);
+        addPiece(pos, ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.ROOK));
+        pos = ChessPosition.of(8, 8);
+        addPiece(pos, ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.ROOK));
+        pos = ChessPosition.of(1, 1);
+        addPiece(pos, ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.ROOK));
+        pos = ChessPosition.of(1, 8);
+        addPiece(pos, ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.ROOK));
+
+        pos = ChessPosition.of(8, 2);
+        addPiece(pos, ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KNIGHT));
+        pos = ChessPosition.of(8, 7);
+        addPiece(pos, ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KNIGHT));
+        pos = ChessPosition.of(1, 2);
+        addPiece(pos, ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KNIGHT));
+        pos = ChessPosition.of(1, 7);
+        addPiece(pos, ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KNIGHT));
+
+        pos = ChessPosition.of(8, 3);
+        addPiece(pos, ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.BISHOP));
+        pos = ChessPosition.of(8, 6);
+        addPiece(pos, ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.BISHOP));
+        pos = ChessPosition.of(1, 3);
+        addPiece(pos, ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.BISHOP));
+        pos = ChessPosition.of(1, 6);
+        addPiece(pos, ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.BISHOP));
+
+        pos = ChessPosition.of(8,4);
+        addPiece(pos, ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.QUEEN));
+        pos = ChessPosition.of(1,4);
+        addPiece(pos, ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.QUEEN));
+
+        pos = ChessPosition.of(8,5);
+        addPiece(pos, ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KING));
+        pos = ChessPosition.of(1,5);
+        addPiece(pos, ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KING));
     }
 }
@@ -1,6 +1,10 @@
 package chess;
 
-import java.util.ArrayList;
+import chess.tablebase.TablebaseResult;
+import chess.tablebase.Tablebases;
+import com.google.gson.annotations.JsonAdapter;
+
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Objects;
 
@@ -9,7 +13,17 @@ import java.util.Objects;
  * <p>
  * Note: You can add to this class, but you may not alter
  * signature of the existing methods.
+ * <p>
+ * Besides the board and side to move, a game keeps the halfmove clock and
+ * the Zobrist keys of the positions played since the last capture or pawn
+ * move, which is all that repetition and fifty-move draws depend on.
+ * <p>
+ * The castling rights and en passant square, the only rules that depend on
+ * earlier moves, are packed into one int that each move updates and
+ * {@link #undoMove} restores. A board handed to {@link #setBoard} keeps the
+ * rights of every king and rook still on its starting square.
  */
+@JsonAdapter(ChessGameAdapter.class)
 public class ChessGame {
 
     @Override
@@ -18,12 +32,13 @@ public class ChessGame {
             return false;
         }
         ChessGame chessGame = (ChessGame) o;
-        return teamTurn == chessGame.teamTurn && Objects.equals(gameBoard, chessGame.gameBoard);
+        return zobristKey() == chessGame.zobristKey() && teamTurn == chessGame.teamTurn
+                && Objects.equals(gameBoard, chessGame.gameBoard);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(teamTurn, gameBoard);
+        return Long.hashCode(zobristKey());
     }
 
     @Override
@@ -39,11 +54,45 @@ public class ChessGame {
         this.gameBoard = new ChessBoard();
         gameBoard.resetBoard();
         this.gameOver = false;
+        this.state = ALL_CASTLING;
+    }
+
+    public static final int CASTLE_WHITE_KINGSIDE = 1;
+    public static final int CASTLE_WHITE_QUEENSIDE = 2;
+    public static final int CASTLE_BLACK_KINGSIDE = 4;
+    public static final int CASTLE_BLACK_QUEENSIDE = 8;
+    static final int ALL_CASTLING = 15;
+
+    // the rights that survive a move from or to each square
+    private static final int[] CASTLING_KEPT = new int[64];
+
+    static {
+        Arrays.fill(CASTLING_KEPT, ALL_CASTLING);
+        CASTLING_KEPT[0] = ALL_CASTLING & ~CASTLE_WHITE_QUEENSIDE;
+        CASTLING_KEPT[4] = ALL_CASTLING & ~(CASTLE_WHITE_KINGSIDE | CASTLE_WHITE_QUEENSIDE);
+        CASTLING_KEPT[7] = ALL_CASTLING & ~CASTLE_WHITE_KINGSIDE;
+        CASTLING_KEPT[56] = ALL_CASTLING & ~CASTLE_BLACK_QUEENSIDE;
+        CASTLING_KEPT[60] = ALL_CASTLING & ~(CASTLE_BLACK_KINGSIDE | CASTLE_BLACK_QUEENSIDE);
+        CASTLING_KEPT[63] = ALL_CASTLING & ~CASTLE_BLACK_KINGSIDE;
     }
 
     private TeamColor teamTurn;
     private ChessBoard gameBoard;
     private boolean gameOver;
+    private int halfmoveClock;
+    private int fullmoveNumber = 1;
+    // castling rights in the low four bits, then the en passant square plus one, or zero for none
+    private int state;
+    // keys of the positions before each move played; the last halfmoveClock entries can still repeat
+    private long[] history = new long[64];
+    private int historyCount;
+    private transient int[] undoMoves = new int[64];
+    private transient int[] undoCaptures = new int[64];
+    private transient int[] undoClocks = new int[64];
+    private transient int[] undoStates = new int[64];
+    private transient int undoCount;
+    private final transient LegalMoves[] legalMoves = new LegalMoves[2];
+    private final transient MoveList scratch = new MoveList(32);
 
     public void setGameOver(boolean over) {
         this.gameOver = over;
@@ -69,6 +118,163 @@ public class ChessGame {
         teamTurn = team;
     }
 
+    /**
+     * @return a Zobrist key identifying the board, the side to move, the
+     * castling rights and the en passant square, suitable for position caches
+     * and repetition checks
+     */
+    public long zobristKey() {
+        return gameBoard.zobristKey() ^ Zobrist.side(teamTurn)
+                ^ Zobrist.castling(state & ALL_CASTLING) ^ Zobrist.enPassant(enPassantSquare());
+    }
+
+    /**
+     * @return the castling rights still held, as a set of the CASTLE_ bits.
+     * A right can be held while castling is not yet possible.
+     */
+    public int getCastlingRights() {
+        return state & ALL_CASTLING;
+    }
+
+    /**
+     * @return the square the side to move may capture onto en passant, or null.
+     * It is only set when an enemy pawn stands ready to make the capture.
+     */
+    public ChessPosition getEnPassantTarget() {
+        int square = enPassantSquare();
+        return square < 0 ? null : ChessBoard.position(square);
+    }
+
+    int enPassantSquare() {
+        return (state >>> 4) - 1;
+    }
+
+    /**
+     * Sets the castling rights and en passant square, e.g. from FEN. Rights
+     * whose king or rook has left its starting square are dropped, as is an
+     * en passant square no pawn of the side to move could capture onto.
+     *
+     * @param castling  a set of the CASTLE_ bits
+     * @param enPassant the en passant square, or -1 for none
+     */
+    void setCastlingAndEnPassant(int castling, int enPassant) {
+        state = castling & castlingFromBoard(gameBoard);
+        if (enPassant >= 0 && canCaptureEnPassant(teamTurn, enPassant)) {
+            state |= (enPassant + 1) << 4;
+        }
+    }
+
+    // each king and rook still on its starting square keeps its right
+    private static int castlingFromBoard(ChessBoard board) {
+        long whiteRooks = board.pieces(TeamColor.WHITE, ChessPiece.PieceType.ROOK);
+        long blackRooks = board.pieces(TeamColor.BLACK, ChessPiece.PieceType.ROOK);
+        int rights = 0;
+        if ((board.pieces(TeamColor.WHITE, ChessPiece.PieceType.KING) & (1L << 4)) != 0) {
+            rights |= ((whiteRooks & (1L << 7)) != 0 ? CASTLE_WHITE_KINGSIDE : 0)
+                    | ((whiteRooks & 1L) != 0 ? CASTLE_WHITE_QUEENSIDE : 0);
+        }
+        if ((board.pieces(TeamColor.BLACK, ChessPiece.PieceType.KING) & (1L << 60)) != 0) {
+            rights |= ((blackRooks & (1L << 63)) != 0 ? CASTLE_BLACK_KINGSIDE : 0)
+                    | ((blackRooks & (1L << 56)) != 0 ? CASTLE_BLACK_QUEENSIDE : 0);
+        }
+        return rights;
+    }
+
+    // True if the square is empty behind an enemy pawn and a pawn of the team could capture onto it
+    private boolean canCaptureEnPassant(TeamColor team, int square) {
+        int pushed = team == TeamColor.WHITE ? square - 8 : square + 8;
+        return pushed >= 0 && pushed < 64 && (gameBoard.occupied() & (1L << square)) == 0
+                && (gameBoard.pieces(opponent(team), ChessPiece.PieceType.PAWN) & (1L << pushed)) != 0
+                && (Attacks.pawn(opponent(team), square) & gameBoard.pieces(team, ChessPiece.PieceType.PAWN)) != 0;
+    }
+
+    /**
+     * @return the number of moves since the last capture or pawn move, counting
+     * each side's move separately
+     */
+    public int getHalfmoveClock() {
+        return halfmoveClock;
+    }
+
+    /**
+     * @return the move number, starting at 1 and going up after each black move
+     */
+    public int getFullmoveNumber() {
+        return fullmoveNumber;
+    }
+
+    void setClocks(int halfmoveClock, int fullmoveNumber) {
+        this.halfmoveClock = halfmoveClock;
+        this.fullmoveNumber = fullmoveNumber;
+    }
+
+    /**
+     * @return the keys of the positions since the last capture or pawn move,
+     * oldest first, not counting the current one
+     */
+    long[] recentHistory() {
+        int count = Math.min(halfmoveClock, historyCount);
+        return Arrays.copyOfRange(history, historyCount - count, historyCount);
+    }
+
+    void setHistory(long[] keys) {
+        history = Arrays.copyOf(keys, Math.max(64, keys.length * 2));
+        historyCount = keys.length;
+    }
+
+    /**
+     * Counts how many times the current position has occurred, including now.
+     * Only positions since the last capture or pawn move can match, and the
+     * fifty-move rule ends the game before there are more than a hundred of
+     * those, so this compares at most fifty keys.
+     *
+     * @return the number of occurrences of the current position, at least 1
+     */
+    public int repetitions() {
+        long key = zobristKey();
+        int count = 1;
+        int oldest = Math.max(0, historyCount - halfmoveClock);
+        for (int i = historyCount - 2; i >= oldest; i -= 2) {
+            if (history[i] == key) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * @return True if the current position has now occurred three times
+     */
+    public boolean isThreefoldRepetition() {
+        return repetitions() >= 3;
+    }
+
+    /**
+     * @return True if fifty moves by each side have passed without a capture or pawn move
+     */
+    public boolean isFiftyMoveDraw() {
+        return halfmoveClock >= 100;
+    }
+
+    /**
+     * Builds a game from a FEN string. Placement and side to move are
+     * required; castling, en passant and the clocks may be omitted.
+     *
+     * @param fen the position, e.g. {@code rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w - - 0 1}
+     * @return a new game in that position
+     * @throws IllegalArgumentException if the string is not valid FEN
+     */
+    public static ChessGame fromFen(String fen) {
+        return Fen.readGame(fen);
+    }
+
+    /**
+     * @return this position as a FEN string
+     */
+    public String toFen() {
+        return Fen.write(this);
+    }
+
     /**
      * Enum identifying the 2 possible teams in a chess game
      */
@@ -77,6 +283,19 @@ public class ChessGame {
         BLACK
     }
 
+    /**
+     * The state of one team's position, as reported to players after a move
+     */
+    public enum GameStatus {
+        NORMAL,
+        CHECK,
+        CHECKMATE,
+        STALEMATE,
+        THREEFOLD_REPETITION,
+        FIFTY_MOVE_RULE,
+        TABLEBASE_DRAW
+    }
+
     /**
      * Gets a valid moves for a piece at the given location
      *
@@ -86,34 +305,47 @@ public class ChessGame {
      */
 
     public boolean validTester(ChessMove move, ChessPiece piece, Collection<ChessPosition> opPositions) {
-        boolean illegal = false;
-        ChessBoard copyBoard = new ChessBoard();
-
-        copyBoard.duplicateBoard(gameBoard);
-        // move the piece on the copied board
-        copyBoard.movePiece(move.getStartPosition(), move.getEndPosition(), piece);
-        //piece = copyBoard.getPiece(move.getEndPosition());
-        // find king
-        ChessPosition kingPos = copyBoard.findKing(piece.getTeamColor());
-
-        // check possible moves of each opposing piece
-        for (ChessPosition pos : opPositions) {
-            ChessPiece opPiece = copyBoard.getPiece(pos);
-            if (opPiece != null) {
-                Collection<ChessMove> opMoves = new ArrayList<>();
-                opMoves = opPiece.pieceMoves(copyBoard, pos);
-                for (ChessMove opMove : opMoves) {
-                    if (opMove.getEndPosition().equals(kingPos)) {
-                        illegal = true;
-                        break;
-                    }
-                }
-            }
-        }
+        return leavesKingInCheck(Move.fromChessMove(move), piece.getTeamColor());
+    }
 
+    // plays the move on the live board, looks for check, then takes it back
+    private boolean leavesKingInCheck(int move, TeamColor color) {
+        int captured = gameBoard.makeMove(move);
+        boolean illegal = isInCheckHelper(color, gameBoard);
+        gameBoard.unmakeMove(move, captured);
         return illegal;
     }
 
+    // answers from the legal move cache when it is current, otherwise stops at the first legal move found
+    private boolean hasLegalMove(TeamColor teamColor) {
+        LegalMoves legal = legalMoves[teamColor.ordinal()];
+        if (legal != null && legal.isFor(zobristKey())) {
+            return !legal.moves.isEmpty();
+        }
+        return MoveGenerator.hasLegalMove(gameBoard, teamColor, state & ALL_CASTLING, enPassantFor(teamColor), scratch);
+    }
+
+    // the team's legal moves in the current position, generated at most once per position
+    private LegalMoves legal(TeamColor color) {
+        LegalMoves legal = legalMoves[color.ordinal()];
+        if (legal == null) {
+            legal = new LegalMoves();
+            legalMoves[color.ordinal()] = legal;
+        }
+        long key = zobristKey();
+        if (!legal.isFor(key)) {
+            legal.clear();
+            MoveGenerator.legalMoves(gameBoard, color, state & ALL_CASTLING, enPassantFor(color), legal.moves);
+            legal.finish(key);
+        }
+        return legal;
+    }
+
+    private static boolean onBoard(ChessPosition position) {
+        return position.getRow() >= 1 && position.getRow() <= 8
+                && position.getColumn() >= 1 && position.getColumn() <= 8;
+    }
+
     public Collection<ChessMove> validMoves(ChessPosition startPosition) {
         ChessPiece piece = gameBoard.getPiece(startPosition);
 
@@ -122,42 +354,148 @@ public class ChessGame {
             return null;
         }
 
-        Collection<ChessMove> allMoves = new ArrayList<>();
-        Collection<ChessMove> validMoves = new ArrayList<>();
-        allMoves = piece.pieceMoves(gameBoard, startPosition);
-        Collection<ChessMove> testAllMoves = new ArrayList<>();
-        if (allMoves == null) {
-            return null;
+        return legal(piece.getTeamColor()).from(ChessBoard.square(startPosition));
+    }
+
+    /**
+     * Checks a move against the legal moves of the piece on its start square,
+     * whichever team's turn it is. The legal moves are generated once per
+     * position and shared with {@link #validMoves(ChessPosition)},
+     * {@link #makeMove} and the checkmate and stalemate tests, after which
+     * this is a bitboard lookup.
+     *
+     * @param move the move to check
+     * @return True if the move is legal in the current position
+     */
+    public boolean isLegal(ChessMove move) {
+        return legalMove(move) != Move.NONE;
+    }
+
+    // the generated move matching a ChessMove, flags included, or Move.NONE
+    private int legalMove(ChessMove move) {
+        ChessPiece piece = gameBoard.getPiece(move.getStartPosition());
+        if (piece == null || !onBoard(move.getEndPosition())) {
+            return Move.NONE;
         }
+        return legal(piece.getTeamColor()).find(Move.fromChessMove(move));
+    }
 
-        // initialize opposing pieces
-        TeamColor opColor;
-        if (piece.getTeamColor() == TeamColor.WHITE) {
-            opColor = TeamColor.BLACK;
-        } else {
-            opColor = TeamColor.WHITE;
+    /**
+     * Appends the legal moves of the piece on a square to a move list, encoded
+     * with {@link Move}. Appends nothing if the square is empty.
+     *
+     * @param square the piece's square, a1 = 0 through h8 = 63
+     * @param moves  the list to append to
+     */
+    public void validMoves(int square, MoveList moves) {
+        ChessPiece piece = gameBoard.pieceAt(square);
+        if (piece != null) {
+            MoveGenerator.legalMovesFrom(gameBoard, square, state & ALL_CASTLING,
+                    enPassantFor(piece.getTeamColor()), moves);
         }
+    }
 
-        // find out where the king is
-        boolean illegal;
+    /**
+     * Gets every legal move for the team whose turn it is, generated in one
+     * pass that finds checks and pins once for all of its pieces. Shares its
+     * cache with {@link #validMoves(ChessPosition)}, {@link #isLegal} and the
+     * checkmate and stalemate tests.
+     *
+     * @return the legal moves grouped by start square, empty if the team is
+     * checkmated or stalemated
+     */
+    public Collection<ChessMove> legalMoves() {
+        return legal(teamTurn).moves.toCollection();
+    }
 
-        // move piece in question through all potential positions
-        for (ChessMove move : allMoves) {
-            illegal = false;
-            // go through each opposing piece
-            Collection<ChessPosition> opPositions = new ArrayList<>(gameBoard.findTeamPosition(opColor));
+    /**
+     * Appends every legal move for the team whose turn it is to a move list,
+     * encoded with {@link Move}. Generates them afresh rather than through
+     * the cache, as searches visit each position about once.
+     *
+     * @param moves the list to append to
+     */
+    public void legalMoves(MoveList moves) {
+        MoveGenerator.legalMoves(gameBoard, teamTurn, state & ALL_CASTLING, enPassantSquare(), moves);
+    }
 
-            if (validTester(move, piece, opPositions)) {
-                illegal = true;
-            }
+    // only the side to move can capture en passant
+    private int enPassantFor(TeamColor color) {
+        return color == teamTurn ? enPassantSquare() : -1;
+    }
 
-            // add move if it is valid
-            if (!illegal) {
-                validMoves.add(move);
+    /**
+     * Plays an encoded move and passes the turn without checking legality.
+     * Meant for searching the game tree; take the move back with {@link #undoMove}.
+     *
+     * @param move a move encoded with {@link Move}, normally one from {@link #validMoves(int, MoveList)}
+     */
+    public void doMove(int move) {
+        if (undoCount == undoMoves.length) {
+            undoMoves = Arrays.copyOf(undoMoves, undoCount * 2);
+            undoCaptures = Arrays.copyOf(undoCaptures, undoCount * 2);
+            undoClocks = Arrays.copyOf(undoClocks, undoCount * 2);
+            undoStates = Arrays.copyOf(undoStates, undoCount * 2);
+        }
+        if (historyCount == history.length) {
+            history = Arrays.copyOf(history, historyCount * 2);
+        }
+        history[historyCount++] = zobristKey();
+        boolean pawnMove = gameBoard.pieceIndexAt(Move.from(move)) % 6 == ChessPiece.PieceType.PAWN.ordinal();
+        int captured = gameBoard.makeMove(move);
+        undoMoves[undoCount] = move;
+        undoCaptures[undoCount] = captured;
+        undoClocks[undoCount] = halfmoveClock;
+        undoStates[undoCount] = state;
+        undoCount++;
+        halfmoveClock = pawnMove || captured >= 0 ? 0 : halfmoveClock + 1;
+        if (teamTurn == TeamColor.BLACK) {
+            fullmoveNumber++;
+        }
+        teamTurn = opponent(teamTurn);
+        state &= CASTLING_KEPT[Move.from(move)] & CASTLING_KEPT[Move.to(move)];
+        if ((move & Move.DOUBLE_PUSH) != 0) {
+            int passed = (Move.from(move) + Move.to(move)) >>> 1;
+            if (canCaptureEnPassant(teamTurn, passed)) {
+                state |= (passed + 1) << 4;
             }
         }
+    }
+
+    /**
+     * Takes back the most recent move played with {@link #doMove} or {@link #makeMove}
+     */
+    public void undoMove() {
+        undoCount--;
+        gameBoard.unmakeMove(undoMoves[undoCount], undoCaptures[undoCount]);
+        halfmoveClock = undoClocks[undoCount];
+        state = undoStates[undoCount];
+        historyCount--;
+        teamTurn = opponent(teamTurn);
+        if (teamTurn == TeamColor.BLACK) {
+            fullmoveNumber--;
+        }
+    }
+
+    /**
+     * @return a copy of this game with its own board, for searching without
+     * touching the original
+     */
+    public ChessGame copy() {
+        ChessGame copy = new ChessGame();
+        copy.gameBoard.duplicateBoard(gameBoard);
+        copy.teamTurn = teamTurn;
+        copy.gameOver = gameOver;
+        copy.halfmoveClock = halfmoveClock;
+        copy.fullmoveNumber = fullmoveNumber;
+        copy.state = state;
+        copy.history = Arrays.copyOf(history, history.length);
+        copy.historyCount = historyCount;
+        return copy;
+    }
 
-        return validMoves;
+    private static TeamColor opponent(TeamColor color) {
+        return color == TeamColor.WHITE ? TeamColor.BLACK : TeamColor.WHITE;
     }
 
     /**
@@ -178,30 +516,10 @@ public class ChessGame {
             System.out.println("wrong turn");
             throw new InvalidMoveException();
         }
-        Collection<ChessMove> possibleMoves = validMoves(pos);
-        for (ChessMove possibleMove : possibleMoves) {
-            if (possibleMove.equals(move)) {
-                possible = true;
-            }
-        }
+        int legalMove = legalMove(move);
+        possible = legalMove != Move.NONE;
         if (possible) {
-            int row = move.getEndPosition().getRow();
-            boolean promote = false;
-            promote = (row == 8 && teamTurn == TeamColor.WHITE) || (row == 1 && teamTurn == TeamColor.BLACK);
-            if (piece.getPieceType() == ChessPiece.PieceType.PAWN && promote) {
-                piece = new ChessPiece(teamTurn, move.getPromotionPiece());
-                gameBoard.movePiece(move.getStartPosition(), move.getEndPosition(), piece);
-            }
-            else {
-                piece = gameBoard.getPiece(pos);
-                gameBoard.movePiece(move.getStartPosition(), move.getEndPosition(), piece);
-            }
-            if (teamTurn == TeamColor.WHITE) {
-                this.teamTurn = TeamColor.BLACK;
-            } else {
-                this.teamTurn = TeamColor.WHITE;
-            }
-
+            doMove(legalMove);
         }
         if (!possible) {
             System.out.println("not a possible move");
@@ -217,8 +535,6 @@ public class ChessGame {
      */
 
     public  boolean isInCheckHelper(TeamColor teamColor, ChessBoard currBoard) {
-        boolean check = false;
-
         TeamColor opColor;
         if (teamColor == TeamColor.WHITE) {
             opColor = TeamColor.BLACK;
@@ -226,23 +542,11 @@ public class ChessGame {
             opColor = TeamColor.WHITE;
         }
 
-        Collection<ChessPosition> opPositions = new ArrayList<>(currBoard.findTeamPosition(opColor));
-        ChessPosition kingPos = currBoard.findKing(teamColor);
-
-        for (ChessPosition pos : opPositions) {
-            ChessPiece opPiece = currBoard.getPiece(pos);
-            if (opPiece != null) {
-                Collection<ChessMove> opMoves = new ArrayList<>();
-                opMoves = opPiece.pieceMoves(currBoard, pos);
-                for (ChessMove opMove : opMoves) {
-                    if (opMove.getEndPosition().equals(kingPos)) {
-                        check = true;
-                        break;
-                    }
-                }
-            }
+        long king = currBoard.pieces(teamColor, ChessPiece.PieceType.KING);
+        if (king == 0) {
+            return false;
         }
-        return check;
+        return currBoard.isSquareAttacked(Long.numberOfTrailingZeros(king), opColor);
     }
     public boolean isInCheck(TeamColor teamColor) {
         return isInCheckHelper(teamColor, gameBoard);
@@ -252,6 +556,46 @@ public class ChessGame {
        return isInCheckHelper(teamColor, copyBoard);
     }
 
+    /**
+     * Works out check, checkmate, stalemate and the drawing rules together,
+     * finding the king and searching for a legal move only once. Checkmate
+     * and stalemate take precedence over a draw by repetition or the
+     * fifty-move rule.
+     *
+     * @param teamColor which team to report on
+     * @return the team's status in the current position
+     */
+    public GameStatus status(TeamColor teamColor) {
+        boolean inCheck = isInCheck(teamColor);
+        if (!hasLegalMove(teamColor)) {
+            return inCheck ? GameStatus.CHECKMATE : GameStatus.STALEMATE;
+        }
+        if (isThreefoldRepetition()) {
+            return GameStatus.THREEFOLD_REPETITION;
+        }
+        if (isFiftyMoveDraw()) {
+            return GameStatus.FIFTY_MOVE_RULE;
+        }
+        return inCheck ? GameStatus.CHECK : GameStatus.NORMAL;
+    }
+
+    /**
+     * Like {@link #status(TeamColor)}, but when the team is to move in a
+     * position the tablebases show is drawn with best play, e.g. bare kings,
+     * reports {@link GameStatus#TABLEBASE_DRAW} instead of NORMAL or CHECK
+     *
+     * @param tablebases the endgame tables to consult, or null for none
+     */
+    public GameStatus status(TeamColor teamColor, Tablebases tablebases) {
+        GameStatus status = status(teamColor);
+        if (tablebases == null || teamColor != teamTurn
+                || status != GameStatus.NORMAL && status != GameStatus.CHECK) {
+            return status;
+        }
+        TablebaseResult known = tablebases.probe(this);
+        return known != null && known.outcome() == TablebaseResult.Outcome.DRAW ? GameStatus.TABLEBASE_DRAW : status;
+    }
+
     /**
      * Determines if the given team is in checkmate
      *
@@ -263,24 +607,7 @@ public class ChessGame {
             return false;
         }
 
-        boolean checkmate = true;
-
-        Collection<ChessPosition> positions = new ArrayList<>(gameBoard.findTeamPosition(teamColor));
-        for (ChessPosition pos : positions) {
-            ChessPiece piece = gameBoard.getPiece(pos);
-            Collection<ChessMove> moves = piece.pieceMoves(gameBoard, pos);
-            for (ChessMove move : moves) {
-                ChessBoard copyBoard = new ChessBoard();
-                copyBoard.duplicateBoard(gameBoard);
-                copyBoard.movePiece(move.getStartPosition(), move.getEndPosition(), piece);
-                if (!isCheck(teamColor, copyBoard)) {
-                    checkmate = false;
-                    return checkmate;
-                }
-            }
-        }
-
-        return checkmate;
+        return !hasLegalMove(teamColor);
     }
 
     /**
@@ -294,29 +621,24 @@ public class ChessGame {
         if (isInCheck(teamColor)) {
             return false;
         }
-        Collection<ChessPosition> positions = new ArrayList<>(gameBoard.findTeamPosition(teamColor));
-        for (ChessPosition pos : positions) {
-            ChessBoard copyBoard = new ChessBoard();
-            copyBoard.duplicateBoard(gameBoard);
-            ChessPiece piece = gameBoard.getPiece(pos);
-            Collection<ChessMove> moves = piece.pieceMoves(gameBoard, pos);
-            for (ChessMove move : moves) {
-                copyBoard.movePiece(move.getStartPosition(), move.getEndPosition(), piece);
-                if (!isCheck(teamColor, copyBoard)) {
-                    return false;
-                }
-            }
-        }
-        return true;
+        return !hasLegalMove(teamColor);
     }
 
     /**
-     * Sets this game's chessboard with a given board
+     * Sets this game's chessboard with a given board. The board starts a new
+     * game as far as the draw rules go: the clocks, the position history and
+     * the moves that could be undone are cleared, as if it were read from FEN
+     * with only placement given. Castling rights are inferred from the board.
      *
      * @param board the new board to use
      */
     public void setBoard(ChessBoard board) {
         gameBoard = board;
+        state = castlingFromBoard(board);
+        halfmoveClock = 0;
+        fullmoveNumber = 1;
+        historyCount = 0;
+        undoCount = 0;
     }
 
     /**
@@ -0,0 +1,98 @@
+package chess;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Writes a ChessGame with the same teamTurn, gameBoard and gameOver fields
+ * as before, plus its clocks, its castling rights and en passant square in
+ * FEN form, and the history that repetition depends on. Only the keys since
+ * the last capture or pawn move are stored, so a long game does not grow its
+ * stored form. Games saved without the newer fields read back with the
+ * clocks at their starting values, no history or en passant square, and
+ * castling rights for every king and rook on its starting square.
+ */
+class ChessGameAdapter extends TypeAdapter<ChessGame> {
+    private final ChessBoardAdapter boards = new ChessBoardAdapter();
+
+    @Override
+    public void write(JsonWriter out, ChessGame game) throws IOException {
+        if (game == null) {
+            out.nullValue();
+            return;
+        }
+        out.beginObject();
+        out.name("teamTurn").value(game.getTeamTurn().name());
+        out.name("gameBoard");
+        boards.write(out, game.getBoard());
+        out.name("gameOver").value(game.getGameOver());
+        out.name("halfmoveClock").value(game.getHalfmoveClock());
+        out.name("fullmoveNumber").value(game.getFullmoveNumber());
+        out.name("castling").value(Fen.writeCastling(game.getCastlingRights()));
+        if (game.enPassantSquare() >= 0) {
+            out.name("enPassant").value(Move.squareName(game.enPassantSquare()));
+        }
+        out.name("history");
+        out.beginArray();
+        for (long key : game.recentHistory()) {
+            out.value(key);
+        }
+        out.endArray();
+        out.endObject();
+    }
+
+    @Override
+    public ChessGame read(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        ChessGame game = new ChessGame();
+        int halfmoveClock = 0;
+        int fullmoveNumber = 1;
+        int castling = ChessGame.ALL_CASTLING;
+        int enPassant = -1;
+        List<Long> history = new ArrayList<>();
+        in.beginObject();
+        while (in.hasNext()) {
+            String name = in.nextName();
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                continue;
+            }
+            switch (name) {
+                case "teamTurn" -> game.setTeamTurn(ChessGame.TeamColor.valueOf(in.nextString()));
+                case "gameBoard" -> game.setBoard(boards.read(in));
+                case "gameOver" -> game.setGameOver(in.nextBoolean());
+                case "halfmoveClock" -> halfmoveClock = in.nextInt();
+                case "fullmoveNumber" -> fullmoveNumber = in.nextInt();
+                case "castling" -> castling = Fen.readCastling(in.nextString());
+                case "enPassant" -> {
+                    String square = in.nextString();
+                    if (square.matches("[a-h][36]")) {
+                        enPassant = Fen.readSquare(square);
+                    }
+                }
+                case "history" -> {
+                    in.beginArray();
+                    while (in.hasNext()) {
+                        history.add(in.nextLong());
+                    }
+                    in.endArray();
+                }
+                default -> in.skipValue();
+            }
+        }
+        in.endObject();
+        game.setClocks(halfmoveClock, fullmoveNumber);
+        game.setCastlingAndEnPassant(castling, enPassant);
+        game.setHistory(history.stream().mapToLong(Long::longValue).toArray());
+        return game;
+    }
+}
@@ -1,6 +1,7 @@
 package chess;
 
-import java.util.ArrayList;
+import com.google.gson.annotations.JsonAdapter;
+
 import java.util.Collection;
 import java.util.Objects;
 
@@ -9,8 +10,23 @@ import java.util.Objects;
  * <p>
  * Note: You can add to this class, but you may not alter
  * signature of the existing methods.
+ * <p>
+ * Pieces are immutable, so each color and type has one canonical instance
+ * available through {@link #of}; prefer it to the constructor.
  */
+@JsonAdapter(ChessPieceAdapter.class)
 public class ChessPiece {
+    private static final ChessPiece[] PIECES = new ChessPiece[12];
+
+    static {
+        for (ChessGame.TeamColor color : ChessGame.TeamColor.values()) {
+            for (PieceType type : PieceType.values()) {
+                PIECES[color.ordinal() * 6 + type.ordinal()] = new ChessPiece(color, type);
+            }
+        }
+    }
+
+
     private final ChessGame.TeamColor pieceColor;
 
     private final PieceType type;
@@ -25,6 +41,9 @@ public class ChessPiece {
 
     @Override
     public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
         if (o == null || getClass() != o.getClass()) {
             return false;
         }
@@ -41,7 +60,21 @@ public class ChessPiece {
         this.pieceColor = pieceColor;
         this.type = type;
     }
-    private boolean captured;
+    /**
+     * @return the shared instance for a color and piece type
+     */
+    public static ChessPiece of(ChessGame.TeamColor pieceColor, PieceType type) {
+        return PIECES[pieceColor.ordinal() * 6 + type.ordinal()];
+    }
+
+    /**
+     * @return the shared instance for a bitboard index as given by
+     * {@link ChessBoard#pieceIndex}
+     */
+    public static ChessPiece of(int pieceIndex) {
+        return PIECES[pieceIndex];
+    }
+
     /**
      * The various different chess piece options
      */
@@ -75,316 +108,100 @@ public class ChessPiece {
      *
      * @return Collection of valid moves
      */
-    public ChessPosition newPos(ChessPosition startPos, int rowIt, int colIt) {
-        int currRow = startPos.getRow();
-        int currCol = startPos.getColumn();
-        int finalRow = currRow + rowIt;
-        int finalCol = currCol + colIt;
-        ChessPosition endPos = new ChessPosition(finalRow, finalCol);
-        return endPos;
-    }
-
-    public ChessMove bishopHelper(ChessBoard board, ChessPosition startPos, ChessPosition endPos) {
-        ChessPiece otherPiece = board.getPiece(endPos);
-        if (otherPiece == null) {
-            ChessMove move = new ChessMove(startPos, endPos, null);
-            return move;
-        }
-        else if (otherPiece.getTeamColor() != this.getTeamColor()) {
-            captured = true;
-            ChessMove move = new ChessMove(startPos, endPos, null);
-            return move;
-        }
-        else {
-            return null;
-        }
-    }
-
-    public Collection<ChessMove> pawnPromote(ChessPosition startPos, ChessPosition endPos) {
-        Collection<ChessMove> pawnMoves = new ArrayList<>();
-        ChessMove move;
-        move = new ChessMove(startPos, endPos, PieceType.BISHOP);
-        pawnMoves.add(move);
-        move = new ChessMove(startPos, endPos, PieceType.KNIGHT);
-        pawnMoves.add(move);
-        move = new ChessMove(startPos, endPos, PieceType.QUEEN);
-        pawnMoves.add(move);
-        move = new ChessMove(startPos, endPos, PieceType.ROOK);
-        pawnMoves.add(move);
-        return pawnMoves;
+    public Collection<ChessMove> pieceMoves(ChessBoard board, ChessPosition myPosition) {
+        MoveList moves = new MoveList(32);
+        generateMoves(board, ChessBoard.square(myPosition), moves);
+        return moves.toCollection();
     }
 
-    public Collection<ChessMove> pawnAddMove(ChessPosition startPos, ChessPosition endPos) {
-        Collection<ChessMove> pawnMoves = new ArrayList<>();
-        ChessMove move;
-        if (endPos.getRow() == 1 || endPos.getRow() == 8) {
-            pawnMoves.addAll(pawnPromote(startPos, endPos));
-        }
-        else {
-            move = new ChessMove(startPos, endPos, null);
-            pawnMoves.add(move);
-        }
-        return pawnMoves;
+    /**
+     * Appends this piece's pseudo-legal moves from the given square to a move
+     * list, without allocating
+     *
+     * @param board  the board the piece is on
+     * @param square the piece's square, a1 = 0 through h8 = 63
+     * @param moves  the list to append encoded moves to
+     */
+    public void generateMoves(ChessBoard board, int square, MoveList moves) {
+        generateMoves(board, square, -1L, moves);
     }
 
-    public Collection<ChessMove> pawnHelper(ChessBoard board, ChessPosition startPos, ChessPosition endPos) {
-        Collection<ChessMove> pawnMoves = new ArrayList<>();
-        ChessPiece otherPiece = board.getPiece(endPos);
-
-        if (otherPiece == null) {
-            pawnMoves = pawnAddMove(startPos, endPos);
-            return pawnMoves;
-        }
-        else {
-            return null;
+    /**
+     * Like {@link #generateMoves(ChessBoard, int, MoveList)}, but only for
+     * moves ending on one of the allowed squares
+     *
+     * @param allowed a bitboard of the destinations to keep
+     */
+    void generateMoves(ChessBoard board, int square, long allowed, MoveList moves) {
+        if (type == PieceType.PAWN) {
+            pawnMoves(board, square, allowed, moves);
+            return;
         }
-    }
 
-    public Collection<ChessMove> pawnCapture(ChessBoard board, ChessPosition startPos, ChessPosition endPos) {
-        Collection<ChessMove> pawnMoves = new ArrayList<>();
-        ChessPiece otherPiece = board.getPiece(endPos);
+        long occupied = board.occupied();
+        long targets = switch (type) {
+            case KNIGHT -> Attacks.knight(square);
+            case KING -> Attacks.king(square);
+            case BISHOP -> Attacks.bishop(square, occupied);
+            case ROOK -> Attacks.rook(square, occupied);
+            default -> Attacks.queen(square, occupied);
+        };
 
-        if (otherPiece == null) {
-            return null;
-        }
-        else if (otherPiece.getTeamColor() != this.getTeamColor()) {
-            pawnMoves = pawnAddMove(startPos, endPos);
-            return pawnMoves;
-        }
-        else {
-            return null;
+        targets &= ~board.team(pieceColor) & allowed;
+        while (targets != 0) {
+            int to = Long.numberOfTrailingZeros(targets);
+            int flags = (occupied & (1L << to)) != 0 ? Move.CAPTURE : 0;
+            moves.add(Move.of(square, to, null, flags));
+            targets &= targets - 1;
         }
     }
 
-    public void addMoves(ChessBoard board, ChessPosition start, ChessPosition end, Collection<ChessMove> moves) {
-        ChessMove move;
-        if (end.getRow() <= 8 && end.getRow() >= 1 && end.getColumn() <= 8 && end.getColumn() >= 1) {
-            move = bishopHelper(board, start, end);
-            if (move != null) {
-                moves.add(move);
-            }
-        }
-    }
-
-    public void pawnPieceMoves(ChessBoard board, ChessPosition myPosition, Collection<ChessMove> moves) {
-        ChessPosition startPos = myPosition;
-        Collection<ChessMove> pawnMoves = new ArrayList<>();
-        ChessPosition endPos;
-        int rowIt;
+    private void pawnMoves(ChessBoard board, int square, long allowed, MoveList moves) {
+        long empty = ~board.occupied();
+        int forward;
         int startRow;
 
         if (this.getTeamColor() == ChessGame.TeamColor.BLACK) {
-            rowIt = -1;
-            startRow = 7;
+            forward = -8;
+            startRow = 6;
         }
         else {
-            rowIt = 1;
-            startRow = 2;
-        }
-
-        if (myPosition.getRow() == startRow) {
-            endPos = newPos(myPosition, rowIt, 0);
-            pawnMoves = pawnHelper(board, myPosition, endPos);
-            if (pawnMoves != null) {
-                endPos = newPos(myPosition, (2 * rowIt), 0);
-                pawnMoves = pawnHelper(board, myPosition, endPos);
-                if (pawnMoves != null) {
-                    moves.addAll(pawnMoves);
-                }
-            }
+            forward = 8;
+            startRow = 1;
         }
 
-        endPos = newPos(myPosition, rowIt, 0);
-        if (endPos.getRow() <= 8 && endPos.getRow() >= 1 && endPos.getColumn() <= 8 && endPos.getColumn() >= 1) {
-            pawnMoves = pawnHelper(board, myPosition, endPos);
-            if (pawnMoves != null) {
-                moves.addAll(pawnMoves);
+        int oneStep = square + forward;
+        if (oneStep >= 0 && oneStep < 64 && (empty & (1L << oneStep)) != 0) {
+            if ((allowed & (1L << oneStep)) != 0) {
+                addPawnMove(square, oneStep, 0, moves);
             }
-        }
-
-        endPos = newPos(myPosition, rowIt, 1);
-        if (endPos.getRow() <= 8 && endPos.getRow() >= 1 && endPos.getColumn() <= 8 && endPos.getColumn() >= 1) {
-            pawnMoves = pawnCapture(board, myPosition, endPos);
-            if (pawnMoves != null) {
-                moves.addAll(pawnMoves);
+            // the double step may block a check the single step does not
+            int twoStep = oneStep + forward;
+            if ((square >>> 3) == startRow && (empty & allowed & (1L << twoStep)) != 0) {
+                moves.add(Move.of(square, twoStep, null, Move.DOUBLE_PUSH));
             }
         }
 
-        endPos = newPos(myPosition, rowIt, -1);
-        if (endPos.getRow() <= 8 && endPos.getRow() >= 1 && endPos.getColumn() <= 8 && endPos.getColumn() >= 1) {
-            pawnMoves = pawnCapture(board, myPosition, endPos);
-            if (pawnMoves != null) {
-                moves.addAll(pawnMoves);
-            }
+        ChessGame.TeamColor opponent = pieceColor == ChessGame.TeamColor.WHITE
+                ? ChessGame.TeamColor.BLACK : ChessGame.TeamColor.WHITE;
+        long captures = Attacks.pawn(pieceColor, square) & board.team(opponent) & allowed;
+        while (captures != 0) {
+            addPawnMove(square, Long.numberOfTrailingZeros(captures), Move.CAPTURE, moves);
+            captures &= captures - 1;
         }
     }
 
-    public void knightPieceMoves(ChessBoard board, ChessPosition myPosition, Collection<ChessMove> moves) {
-        ChessPosition endPos;
-
-        endPos = newPos(myPosition, 2, 1);
-        addMoves(board, myPosition, endPos, moves);
-        endPos = newPos(myPosition, 2, -1);
-        addMoves(board, myPosition, endPos, moves);
-        endPos = newPos(myPosition, -2, 1);
-        addMoves(board, myPosition, endPos, moves);
-        endPos = newPos(myPosition, -2, -1);
-        addMoves(board, myPosition, endPos, moves);
-        endPos = newPos(myPosition, 1, 2);
-        addMoves(board, myPosition, endPos, moves);
-        endPos = newPos(myPosition, -1, 2);
-        addMoves(board, myPosition, endPos, moves);
-        endPos = newPos(myPosition, 1, -2);
-        addMoves(board, myPosition, endPos, moves);
-        endPos = newPos(myPosition, -1, -2);
-        addMoves(board, myPosition, endPos, moves);
-    }
-
-    public void kingPieceMoves(ChessBoard board, ChessPosition myPosition, Collection<ChessMove> moves) {
-        ChessPosition endPos;
-
-        endPos = newPos(myPosition, 1, 0);
-        addMoves(board, myPosition, endPos, moves);
-        endPos = newPos(myPosition, -1, 0);
-        addMoves(board, myPosition, endPos, moves);
-        endPos = newPos(myPosition, 0, 1);
-        addMoves(board, myPosition, endPos, moves);
-        endPos = newPos(myPosition, 0, -1);
-        addMoves(board, myPosition, endPos, moves);
-        endPos = newPos(myPosition, 1, 1);
-        addMoves(board, myPosition, endPos, moves);
-        endPos = newPos(myPosition, 1, -1);
-        addMoves(board, myPosition, endPos, moves);
-        endPos = newPos(myPosition, -1, 1);
-        addMoves(board, myPosition, endPos, moves);
-        endPos = newPos(myPosition, -1, -1);
-        addMoves(board, myPosition, endPos, moves);
-    }
-
-    public void bishopPieceMoves(ChessBoard board, ChessPosition myPosition, Collection<ChessMove> moves) {
-        captured = false;
-        ChessPosition startPos = myPosition;
-        ChessPosition endPos;
-        ChessMove move;
-
-        while (myPosition.getRow() < 8 && myPosition.getColumn() < 8 && !captured) {
-            endPos = newPos(myPosition, 1, 1);
-            move = bishopHelper(board, startPos, endPos);
-            if (move != null) {
-                moves.add(move);
-            } else {break;}
-            myPosition = endPos;
-        }
-
-        myPosition = startPos;
-        captured = false;
-        while (myPosition.getRow() > 1 && myPosition.getColumn() < 8 && !captured) {
-            endPos = newPos(myPosition, -1, 1);
-            move = bishopHelper(board, startPos, endPos);
-            if (move != null) {
-                moves.add(move);
-            } else {break;}
-            myPosition = endPos;
-        }
-
-        myPosition = startPos;
-        captured = false;
-        while (myPosition.getRow() < 8 && myPosition.getColumn() > 1 && !captured) {
-            endPos = newPos(myPosition, 1, -1);
-            move = bishopHelper(board, startPos, endPos);
-            if (move != null) {
-                moves.add(move);
-            } else {break;}
-            myPosition = endPos;
+    // reaching the first or last row expands into one move per promotion piece
+    private void addPawnMove(int from, int to, int flags, MoveList moves) {
+        int row = to >>> 3;
+        if (row == 0 || row == 7) {
+            moves.add(Move.of(from, to, PieceType.QUEEN, flags));
+            moves.add(Move.of(from, to, PieceType.ROOK, flags));
+            moves.add(Move.of(from, to, PieceType.BISHOP, flags));
+            moves.add(Move.of(from, to, PieceType.KNIGHT, flags));
+        } else {
+            moves.add(Move.of(from, to, null, flags));
         }
-
-        myPosition = startPos;
-        captured = false;
-        while (myPosition.getRow() > 1 && myPosition.getColumn() > 1 && !captured) {
-            endPos = newPos(myPosition, -1, -1);
-            move = bishopHelper(board, startPos, endPos);
-            if (move != null) {
-                moves.add(move);
-            } else {break;}
-            myPosition = endPos;
-        }
-    }
-
-    public void rookPieceMoves(ChessBoard board, ChessPosition myPosition, Collection<ChessMove> moves) {
-        captured = false;
-        ChessPosition endPos;
-        ChessMove move;
-        ChessPosition startPos = myPosition;
-
-        myPosition = startPos;
-        while (myPosition.getRow() < 8 && !captured) {
-            endPos = newPos(myPosition, 1, 0);
-            move = bishopHelper(board, startPos, endPos);
-            if (move != null) {
-                moves.add(move);
-            } else {break;}
-            myPosition = endPos;
-        }
-
-        myPosition = startPos;
-        captured = false;
-        while (myPosition.getColumn() < 8 && !captured) {
-            endPos = newPos(myPosition, 0, 1);
-            move = bishopHelper(board, startPos, endPos);
-            if (move != null) {
-                moves.add(move);
-            } else {break;}
-            myPosition = endPos;
-        }
-
-        myPosition = startPos;
-        captured = false;
-        while (myPosition.getColumn() > 1 && !captured) {
-            endPos = newPos(myPosition, 0, -1);
-            move = bishopHelper(board, startPos, endPos);
-            if (move != null) {
-                moves.add(move);
-            } else {break;}
-            myPosition = endPos;
-        }
-
-        myPosition = startPos;
-        captured = false;
-        while (myPosition.getRow() > 1 && !captured) {
-            endPos = newPos(myPosition, -1, 0);
-            move = bishopHelper(board, startPos, endPos);
-            if (move != null) {
-                moves.add(move);
-            } else {break;}
-            myPosition = endPos;
-        }
-    }
-
-    public Collection<ChessMove> pieceMoves(ChessBoard board, ChessPosition myPosition) {
-        Collection<ChessMove> moves = new ArrayList<>();
-        ChessPosition startPos = myPosition;
-
-        if (type == PieceType.PAWN) {
-            pawnPieceMoves(board, myPosition, moves);
-        }
-
-        if (type == PieceType.KNIGHT) {
-            knightPieceMoves(board, myPosition, moves);
-        }
-
-        if (type == PieceType.KING) {
-            kingPieceMoves(board, myPosition, moves);
-        }
-
-        if (type == PieceType.BISHOP || type == PieceType.QUEEN) {
-            bishopPieceMoves(board, myPosition, moves);
-        }
-
-        if (type == PieceType.ROOK || type == PieceType.QUEEN) {
-            rookPieceMoves(board, myPosition, moves);
-        }
-
-        return moves;
     }
 
 }
@@ -0,0 +1,157 @@
+package chess;
+
+/**
+ * Reads and writes positions in Forsyth-Edwards Notation, e.g.
+ * {@code rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w - - 0 1}.
+ * <p>
+ * Placement and side to move are required; the other fields are optional
+ * when reading. Without a castling field, every king and rook on its
+ * starting square keeps its rights. An en passant square is only kept, and
+ * only written, when a pawn could actually capture onto it.
+ */
+final class Fen {
+    private Fen() {
+    }
+
+    static ChessGame readGame(String fen) {
+        String[] fields = fen.trim().split("\\s+");
+        if (fields.length < 2 || fields.length > 6) {
+            throw new IllegalArgumentException("Error: FEN needs 2 to 6 fields: " + fen);
+        }
+        ChessGame game = new ChessGame();
+        game.setBoard(readBoard(fields[0]));
+        game.setTeamTurn(switch (fields[1]) {
+            case "w" -> ChessGame.TeamColor.WHITE;
+            case "b" -> ChessGame.TeamColor.BLACK;
+            default -> throw new IllegalArgumentException("Error: bad side to move in FEN: " + fields[1]);
+        });
+        if (fields.length > 2 && !fields[2].matches("-|K?Q?k?q?")) {
+            throw new IllegalArgumentException("Error: bad castling field in FEN: " + fields[2]);
+        }
+        if (fields.length > 3 && !fields[3].matches("-|[a-h][36]")) {
+            throw new IllegalArgumentException("Error: bad en passant field in FEN: " + fields[3]);
+        }
+        int castling = fields.length > 2 ? readCastling(fields[2]) : ChessGame.ALL_CASTLING;
+        int enPassant = fields.length > 3 && !fields[3].equals("-") ? readSquare(fields[3]) : -1;
+        game.setCastlingAndEnPassant(castling, enPassant);
+        for (int i = 4; i < fields.length; i++) {
+            if (!fields[i].matches("\\d{1,6}")) {
+                throw new IllegalArgumentException("Error: bad move counter in FEN: " + fields[i]);
+            }
+        }
+        game.setClocks(fields.length > 4 ? Integer.parseInt(fields[4]) : 0,
+                fields.length > 5 ? Math.max(1, Integer.parseInt(fields[5])) : 1);
+        return game;
+    }
+
+    static ChessBoard readBoard(String placement) {
+        String[] ranks = placement.split("/", -1);
+        if (ranks.length != 8) {
+            throw new IllegalArgumentException("Error: FEN placement needs 8 ranks: " + placement);
+        }
+        ChessBoard board = new ChessBoard();
+        for (int i = 0; i < 8; i++) {
+            int row = 8 - i;
+            int col = 1;
+            for (char c : ranks[i].toCharArray()) {
+                if (c >= '1' && c <= '8') {
+                    col += c - '0';
+                } else if (col <= 8) {
+                    board.addPiece(ChessPosition.of(row, col++), piece(c));
+                } else {
+                    col++;
+                }
+            }
+            if (col != 9) {
+                throw new IllegalArgumentException("Error: FEN rank " + row + " does not cover 8 squares: " + ranks[i]);
+            }
+        }
+        return board;
+    }
+
+    static String write(ChessGame game) {
+        int enPassant = game.enPassantSquare();
+        return write(game.getBoard()) + (game.getTeamTurn() == ChessGame.TeamColor.WHITE ? " w " : " b ")
+                + writeCastling(game.getCastlingRights()) + " " + (enPassant < 0 ? "-" : Move.squareName(enPassant))
+                + " " + game.getHalfmoveClock() + " " + game.getFullmoveNumber();
+    }
+
+    // a square name such as e3, already checked for form
+    static int readSquare(String name) {
+        return (name.charAt(1) - '1') * 8 + name.charAt(0) - 'a';
+    }
+
+    static int readCastling(String field) {
+        int rights = 0;
+        for (char c : field.toCharArray()) {
+            rights |= switch (c) {
+                case 'K' -> ChessGame.CASTLE_WHITE_KINGSIDE;
+                case 'Q' -> ChessGame.CASTLE_WHITE_QUEENSIDE;
+                case 'k' -> ChessGame.CASTLE_BLACK_KINGSIDE;
+                case 'q' -> ChessGame.CASTLE_BLACK_QUEENSIDE;
+                default -> 0;
+            };
+        }
+        return rights;
+    }
+
+    static String writeCastling(int rights) {
+        if (rights == 0) {
+            return "-";
+        }
+        StringBuilder out = new StringBuilder(4);
+        if ((rights & ChessGame.CASTLE_WHITE_KINGSIDE) != 0) {
+            out.append('K');
+        }
+        if ((rights & ChessGame.CASTLE_WHITE_QUEENSIDE) != 0) {
+            out.append('Q');
+        }
+        if ((rights & ChessGame.CASTLE_BLACK_KINGSIDE) != 0) {
+            out.append('k');
+        }
+        if ((rights & ChessGame.CASTLE_BLACK_QUEENSIDE) != 0) {
+            out.append('q');
+        }
+        return out.toString();
+    }
+
+    static String write(ChessBoard board) {
+        StringBuilder out = new StringBuilder(72);
+        for (int row = 8; row >= 1; row--) {
+            int empty = 0;
+            for (int col = 1; col <= 8; col++) {
+                ChessPiece piece = board.pieceAt((row - 1) * 8 + col - 1);
+                if (piece == null) {
+                    empty++;
+                    continue;
+                }
+                if (empty > 0) {
+                    out.append(empty);
+                    empty = 0;
+                }
+                out.append(ChessBoard.pieceChar(piece));
+            }
+            if (empty > 0) {
+                out.append(empty);
+            }
+            if (row > 1) {
+                out.append('/');
+            }
+        }
+        return out.toString();
+    }
+
+    private static ChessPiece piece(char c) {
+        ChessGame.TeamColor color = Character.isLowerCase(c) ? ChessGame.TeamColor.BLACK : ChessGame.TeamColor.WHITE;
+        ChessPiece.PieceType type = switch (Character.toLowerCase(c)) {
+            case 'k' -> ChessPiece.PieceType.KING;
+            case 'q' -> ChessPiece.PieceType.QUEEN;
+            case 'b' -> ChessPiece.PieceType.BISHOP;
+            case 'n' -> ChessPiece.PieceType.KNIGHT;
+            case 'r' -> ChessPiece.PieceType.ROOK;
+            case 'p' -> ChessPiece.PieceType.PAWN;
+            default -> throw new IllegalArgumentException("Error: unknown piece '" + c + "' in FEN");
+        };
+        return ChessPiece.of(color, type);
+    }
+}
@@ -0,0 +1,82 @@
+package chess;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * Every legal move for one team in one position, grouped by start square,
+ * with a destination bitboard per start square so membership is a bit test.
+ * ChessGame keeps one per team and refills it when its Zobrist key shows the
+ * position has changed.
+ */
+final class LegalMoves {
+    final MoveList moves = new MoveList();
+    private final long[] targets = new long[64];
+    // moves from square s are moves[first[s]] up to moves[first[s + 1]]
+    private final int[] first = new int[65];
+    private long key;
+    private boolean filled;
+
+    boolean isFor(long key) {
+        return filled && this.key == key;
+    }
+
+    void clear() {
+        moves.clear();
+        filled = false;
+    }
+
+    /**
+     * Indexes {@link #moves}, which must be grouped by start square in
+     * ascending order, and marks the list as current for the given key
+     */
+    void finish(long key) {
+        Arrays.fill(targets, 0);
+        int square = 0;
+        for (int i = 0; i < moves.size(); i++) {
+            int move = moves.get(i);
+            while (square <= Move.from(move)) {
+                first[square++] = i;
+            }
+            targets[Move.from(move)] |= 1L << Move.to(move);
+        }
+        while (square <= 64) {
+            first[square++] = moves.size();
+        }
+        this.key = key;
+        filled = true;
+    }
+
+    /**
+     * @return True if some legal move goes from one square to the other
+     */
+    boolean reaches(int from, int to) {
+        return (targets[from] & (1L << to)) != 0;
+    }
+
+    /**
+     * @return the generated move, flags included, with the same squares and
+     * promotion as the given one, or {@link Move#NONE} if it is not legal
+     */
+    int find(int move) {
+        int from = Move.from(move);
+        if (!reaches(from, Move.to(move))) {
+            return Move.NONE;
+        }
+        for (int i = first[from]; i < first[from + 1]; i++) {
+            if (Move.sameMove(moves.get(i), move)) {
+                return moves.get(i);
+            }
+        }
+        return Move.NONE;
+    }
+
+    Collection<ChessMove> from(int square) {
+        Collection<ChessMove> out = new ArrayList<>(first[square + 1] - first[square]);
+        for (int i = first[square]; i < first[square + 1]; i++) {
+            out.add(Move.toChessMove(moves.get(i)));
+        }
+        return out;
+    }
+}
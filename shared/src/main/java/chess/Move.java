@@ -0,0 +1,119 @@
+package chess;
+
+/**
+ * Packs a move into a single int so move generation never has to allocate.
+ * <p>
+ * Bits 0-5 hold the start square and bits 6-11 the end square (a1 = 0,
+ * h8 = 63). Bits 12-14 hold the promotion piece as its
+ * {@link ChessPiece.PieceType} ordinal plus one, or zero for no promotion.
+ * The remaining bits are flags describing the move.
+ * <p>
+ * {@link ChessMove} remains the type used at the public API boundary.
+ */
+public final class Move {
+    public static final int NONE = 0;
+
+    public static final int CAPTURE = 1 << 15;
+    public static final int DOUBLE_PUSH = 1 << 16;
+    /** The king's two-square move; the rook's jump is implied by the king's squares */
+    public static final int CASTLE = 1 << 17;
+    /** A pawn capture onto the en passant square; it also carries {@link #CAPTURE} */
+    public static final int EN_PASSANT = 1 << 18;
+
+    private static final int SQUARES_AND_PROMOTION = (1 << 15) - 1;
+    private static final ChessPiece.PieceType[] TYPES = ChessPiece.PieceType.values();
+
+    private Move() {
+    }
+
+    public static int of(int from, int to) {
+        return from | (to << 6);
+    }
+
+    public static int of(int from, int to, ChessPiece.PieceType promotion, int flags) {
+        int move = from | (to << 6) | flags;
+        if (promotion != null) {
+            move |= (promotion.ordinal() + 1) << 12;
+        }
+        return move;
+    }
+
+    public static int from(int move) {
+        return move & 63;
+    }
+
+    public static int to(int move) {
+        return (move >>> 6) & 63;
+    }
+
+    /**
+     * @return the promotion piece type, or null if the move is not a promotion
+     */
+    public static ChessPiece.PieceType promotion(int move) {
+        int code = (move >>> 12) & 7;
+        return code == 0 ? null : TYPES[code - 1];
+    }
+
+    /**
+     * @return the promotion piece type's ordinal, or -1 if the move is not a promotion
+     */
+    public static int promotionOrdinal(int move) {
+        return ((move >>> 12) & 7) - 1;
+    }
+
+    public static boolean isPromotion(int move) {
+        return (move & (7 << 12)) != 0;
+    }
+
+    public static boolean isCapture(int move) {
+        return (move & CAPTURE) != 0;
+    }
+
+    public static boolean isCastle(int move) {
+        return (move & CASTLE) != 0;
+    }
+
+    public static boolean isEnPassant(int move) {
+        return (move & EN_PASSANT) != 0;
+    }
+
+    /**
+     * @return True if both moves have the same squares and promotion, ignoring flags
+     */
+    public static boolean sameMove(int a, int b) {
+        return ((a ^ b) & SQUARES_AND_PROMOTION) == 0;
+    }
+
+    public static ChessMove toChessMove(int move) {
+        return new ChessMove(ChessBoard.position(from(move)), ChessBoard.position(to(move)), promotion(move));
+    }
+
+    /**
+     * Encodes a ChessMove's squares and promotion. Flags are not set, so
+     * compare the result against generated moves with {@link #sameMove}.
+     */
+    public static int fromChessMove(ChessMove move) {
+        return of(ChessBoard.square(move.getStartPosition()), ChessBoard.square(move.getEndPosition()),
+                move.getPromotionPiece(), 0);
+    }
+
+    public static String toString(int move) {
+        StringBuilder out = new StringBuilder(5);
+        out.append(squareName(from(move))).append(squareName(to(move)));
+        ChessPiece.PieceType promotion = promotion(move);
+        if (promotion != null) {
+            out.append(switch (promotion) {
+                case QUEEN -> 'q';
+                case ROOK -> 'r';
+                case BISHOP -> 'b';
+                case KNIGHT -> 'n';
+                default -> '?';
+            });
+        }
+        return out.toString();
+    }
+
+    public static String squareName(int square) {
+        return "" + (char) ('a' + (square & 7)) + (char) ('1' + (square >>> 3));
+    }
+}
@@ -0,0 +1,194 @@
+package chess;
+
+/**
+ * Generates strictly legal moves without playing any of them.
+ * <p>
+ * The pieces giving check and the pieces pinned to their king are found once
+ * per position. Every other piece then only generates moves onto the squares
+ * that answer the check, and a pinned piece only along its pin line. In
+ * double check only the king moves. The king's destinations are tested
+ * against the opponent's attacks with the king lifted off the board, so it
+ * cannot step back along the line of a slider checking it. Castling and
+ * en passant are added when the game's state allows them.
+ * <p>
+ * Moves come out grouped by start square in ascending order, the same order
+ * {@link ChessPiece#generateMoves} produces them.
+ */
+public final class MoveGenerator {
+    private MoveGenerator() {
+    }
+
+    /**
+     * Appends every legal move for one team to a move list, leaving out
+     * castling and en passant, which depend on how the position was reached.
+     * {@link ChessGame#legalMoves(MoveList)} includes them.
+     */
+    public static void legalMoves(ChessBoard board, ChessGame.TeamColor color, MoveList moves) {
+        generate(board, color, board.team(color), 0, -1, false, moves);
+    }
+
+    /**
+     * Appends every legal move for one team to a move list
+     *
+     * @param castling  the castling rights, as {@link ChessGame} castling bits
+     * @param enPassant the square a pawn of this team may capture en passant, or -1
+     */
+    static void legalMoves(ChessBoard board, ChessGame.TeamColor color, int castling, int enPassant,
+                           MoveList moves) {
+        generate(board, color, board.team(color), castling, enPassant, false, moves);
+    }
+
+    /**
+     * Tells whether one team has any legal move, stopping at the first piece
+     * found with one instead of generating them all
+     *
+     * @param scratch a list to generate into; it is cleared first
+     */
+    static boolean hasLegalMove(ChessBoard board, ChessGame.TeamColor color, int castling, int enPassant,
+                                MoveList scratch) {
+        scratch.clear();
+        generate(board, color, board.team(color), castling, enPassant, true, scratch);
+        return !scratch.isEmpty();
+    }
+
+    /**
+     * Appends the legal moves of the piece on a square to a move list.
+     * Appends nothing if the square is empty.
+     *
+     * @param square the piece's square, a1 = 0 through h8 = 63
+     */
+    static void legalMovesFrom(ChessBoard board, int square, int castling, int enPassant, MoveList moves) {
+        ChessPiece piece = board.pieceAt(square);
+        if (piece != null) {
+            generate(board, piece.getTeamColor(), 1L << square, castling, enPassant, false, moves);
+        }
+    }
+
+    // with first set, returns as soon as one piece has added a move
+    private static void generate(ChessBoard board, ChessGame.TeamColor color, long from, int castling, int enPassant,
+                                 boolean first, MoveList moves) {
+        int start = moves.size();
+        long kings = board.pieces(color, ChessPiece.PieceType.KING);
+        if (kings == 0) {
+            // a board set up without a king has nothing to keep out of check
+            for (; from != 0; from &= from - 1) {
+                int square = Long.numberOfTrailingZeros(from);
+                ChessPiece piece = board.pieceAt(square);
+                piece.generateMoves(board, square, moves);
+                if (capturesEnPassant(piece, square, enPassant)) {
+                    moves.add(Move.of(square, enPassant, null, Move.CAPTURE | Move.EN_PASSANT));
+                }
+                if (first && moves.size() > start) {
+                    return;
+                }
+            }
+            return;
+        }
+
+        ChessGame.TeamColor enemy = color == ChessGame.TeamColor.WHITE
+                ? ChessGame.TeamColor.BLACK : ChessGame.TeamColor.WHITE;
+        int king = Long.numberOfTrailingZeros(kings);
+        long occupied = board.occupied();
+        long checkers = board.attackers(king, enemy, occupied);
+        long evasions = -1L;
+        if (checkers != 0) {
+            evasions = Long.bitCount(checkers) > 1 ? 0 : checkers | Attacks.between(king, Long.numberOfTrailingZeros(checkers));
+        }
+        long pinned = pinned(board, color, enemy, king, occupied);
+
+        for (; from != 0; from &= from - 1) {
+            int square = Long.numberOfTrailingZeros(from);
+            ChessPiece piece = board.pieceAt(square);
+            if (square == king) {
+                piece.generateMoves(board, square, safeKingSquares(board, enemy, king, occupied), moves);
+                if (checkers == 0 && castling != 0) {
+                    castles(board, color, enemy, king, castling, occupied, moves);
+                }
+            } else if (evasions != 0) {
+                long allowed = (pinned & (1L << square)) != 0 ? evasions & Attacks.line(king, square) : evasions;
+                piece.generateMoves(board, square, allowed, moves);
+                if (capturesEnPassant(piece, square, enPassant)) {
+                    enPassant(board, enemy, square, enPassant, king, moves);
+                }
+            }
+            if (first && moves.size() > start) {
+                return;
+            }
+        }
+    }
+
+    private static boolean capturesEnPassant(ChessPiece piece, int square, int enPassant) {
+        return enPassant >= 0 && piece.getPieceType() == ChessPiece.PieceType.PAWN
+                && (Attacks.pawn(piece.getTeamColor(), square) & (1L << enPassant)) != 0;
+    }
+
+    /*
+     * Two pawns leave the capturing pawn's rank at once, which can uncover an
+     * attack on the king that no pin test sees, so the capture is played and
+     * the king checked. It is rare enough for that to cost nothing.
+     */
+    private static void enPassant(ChessBoard board, ChessGame.TeamColor enemy, int square, int target, int king,
+                                  MoveList moves) {
+        int move = Move.of(square, target, null, Move.CAPTURE | Move.EN_PASSANT);
+        int captured = board.makeMove(move);
+        boolean safe = board.attackers(king, enemy, board.occupied()) == 0;
+        board.unmakeMove(move, captured);
+        if (safe) {
+            moves.add(move);
+        }
+    }
+
+    // the king is not in check here; it may not pass through or land on an attacked square
+    private static void castles(ChessBoard board, ChessGame.TeamColor color, ChessGame.TeamColor enemy, int king,
+                                int castling, long occupied, MoveList moves) {
+        boolean white = color == ChessGame.TeamColor.WHITE;
+        int home = white ? 4 : 60;
+        if (king != home) {
+            return;
+        }
+        long rooks = board.pieces(color, ChessPiece.PieceType.ROOK);
+        int kingside = white ? ChessGame.CASTLE_WHITE_KINGSIDE : ChessGame.CASTLE_BLACK_KINGSIDE;
+        int queenside = white ? ChessGame.CASTLE_WHITE_QUEENSIDE : ChessGame.CASTLE_BLACK_QUEENSIDE;
+        if ((castling & queenside) != 0 && (rooks & (1L << (home - 4))) != 0
+                && (occupied & Attacks.between(home, home - 4)) == 0
+                && board.attackers(home - 1, enemy, occupied) == 0
+                && board.attackers(home - 2, enemy, occupied) == 0) {
+            moves.add(Move.of(home, home - 2, null, Move.CASTLE));
+        }
+        if ((castling & kingside) != 0 && (rooks & (1L << (home + 3))) != 0
+                && (occupied & Attacks.between(home, home + 3)) == 0
+                && board.attackers(home + 1, enemy, occupied) == 0
+                && board.attackers(home + 2, enemy, occupied) == 0) {
+            moves.add(Move.of(home, home + 2, null, Move.CASTLE));
+        }
+    }
+
+    // own pieces standing alone between the king and an enemy slider aimed at it
+    private static long pinned(ChessBoard board, ChessGame.TeamColor color, ChessGame.TeamColor enemy,
+                               int king, long occupied) {
+        long queens = board.pieces(enemy, ChessPiece.PieceType.QUEEN);
+        long snipers = Attacks.rook(king, 0) & (board.pieces(enemy, ChessPiece.PieceType.ROOK) | queens)
+                | Attacks.bishop(king, 0) & (board.pieces(enemy, ChessPiece.PieceType.BISHOP) | queens);
+        long own = board.team(color);
+        long pinned = 0;
+        for (; snipers != 0; snipers &= snipers - 1) {
+            long blockers = Attacks.between(king, Long.numberOfTrailingZeros(snipers)) & occupied;
+            if (Long.bitCount(blockers) == 1) {
+                pinned |= blockers & own;
+            }
+        }
+        return pinned;
+    }
+
+    private static long safeKingSquares(ChessBoard board, ChessGame.TeamColor enemy, int king, long occupied) {
+        long withoutKing = occupied & ~(1L << king);
+        long safe = 0;
+        for (long targets = Attacks.king(king); targets != 0; targets &= targets - 1) {
+            int to = Long.numberOfTrailingZeros(targets);
+            if (board.attackers(to, enemy, withoutKing) == 0) {
+                safe |= 1L << to;
+            }
+        }
+        return safe;
+    }
+}
@@ -0,0 +1,88 @@
+package chess;
+
+/**
+ * Random 64-bit keys for Zobrist hashing. A position's key is the XOR of the
+ * key for every piece on its square plus the side to move, the castling
+ * rights and the en passant file, so playing a move only has to XOR out what
+ * left a square and XOR in what arrived.
+ * <p>
+ * The keys come from a fixed seed, so the same position hashes to the same
+ * key in every process and keys can be stored or shared between the client
+ * and server.
+ */
+public final class Zobrist {
+    private static final long[][] PIECES = new long[12][64];
+    private static final long SIDE;
+    private static final long[] CASTLING = new long[16];
+    private static final long[] EN_PASSANT = new long[8];
+
+    static {
+        long seed = 0x9E3779B97F4A7C15L;
+        for (int piece = 0; piece < 12; piece++) {
+            for (int square = 0; square < 64; square++) {
+                seed += 0x9E3779B97F4A7C15L;
+                PIECES[piece][square] = mix(seed);
+            }
+        }
+        seed += 0x9E3779B97F4A7C15L;
+        SIDE = mix(seed);
+        // one key per right, combined so each set of rights is a single lookup
+        long[] rights = new long[4];
+        for (int i = 0; i < rights.length; i++) {
+            seed += 0x9E3779B97F4A7C15L;
+            rights[i] = mix(seed);
+        }
+        for (int set = 0; set < CASTLING.length; set++) {
+            for (int i = 0; i < rights.length; i++) {
+                if ((set & (1 << i)) != 0) {
+                    CASTLING[set] ^= rights[i];
+                }
+            }
+        }
+        for (int file = 0; file < EN_PASSANT.length; file++) {
+            seed += 0x9E3779B97F4A7C15L;
+            EN_PASSANT[file] = mix(seed);
+        }
+    }
+
+    private Zobrist() {
+    }
+
+    // splitmix64 finalizer
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * @param pieceIndex the piece's bitboard index, see {@link ChessBoard#pieceIndex}
+     * @param square     the square, a1 = 0 through h8 = 63
+     */
+    public static long piece(int pieceIndex, int square) {
+        return PIECES[pieceIndex][square];
+    }
+
+    /**
+     * @return the key XORed in when black is to move
+     */
+    public static long side(ChessGame.TeamColor teamTurn) {
+        return teamTurn == ChessGame.TeamColor.BLACK ? SIDE : 0;
+    }
+
+    /**
+     * @param rights the castling rights as a set of {@link ChessGame} castling bits
+     * @return the key XORed in for those rights, zero for none
+     */
+    public static long castling(int rights) {
+        return CASTLING[rights];
+    }
+
+    /**
+     * @param square the en passant target square, or -1 for none
+     * @return the key XORed in for the target's file, zero for none
+     */
+    public static long enPassant(int square) {
+        return square < 0 ? 0 : EN_PASSANT[square & 7];
+    }
+}
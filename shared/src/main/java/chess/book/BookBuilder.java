@@ -0,0 +1,155 @@
+package chess.book;
+
+import chess.ChessGame;
+import chess.Move;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compiles games in PGN into an opening book file for {@link OpeningBook}.
+ * <p>
+ * Every position in the first plies of each game is recorded with the move
+ * played from it, and a move's weight is the number of games that played it.
+ * A game is read until its last move or the first move that cannot be played,
+ * whichever comes first.
+ * <p>
+ * Run with {@code mvn -pl shared exec:java -Dexec.mainClass=chess.book.BookBuilder
+ * -Dexec.args="games.pgn more.pgn --out=book.bin"}. Other options:
+ * <ul>
+ *     <li>{@code --plies=N} records the first N plies of each game (default 24)</li>
+ *     <li>{@code --min=N} drops moves played in fewer than N games (default 1)</li>
+ * </ul>
+ */
+public class BookBuilder {
+    public static final int DEFAULT_PLIES = 24;
+
+    private final int maxPlies;
+    private final Map<Long, Map<Integer, Integer>> counts = new HashMap<>();
+    private int games;
+
+    public BookBuilder() {
+        this(DEFAULT_PLIES);
+    }
+
+    /**
+     * @param maxPlies how many plies from the start of each game to record
+     */
+    public BookBuilder(int maxPlies) {
+        if (maxPlies < 1) {
+            throw new IllegalArgumentException("Error: a book needs at least one ply per game");
+        }
+        this.maxPlies = maxPlies;
+    }
+
+    /**
+     * Records the opening of every game in a PGN text
+     *
+     * @return the number of games read
+     */
+    public int addPgn(Reader pgn) throws IOException {
+        List<List<String>> read = Pgn.games(pgn);
+        for (List<String> moves : read) {
+            addGame(moves);
+        }
+        return read.size();
+    }
+
+    /**
+     * Records the opening of one game, played from the standard starting position
+     *
+     * @param sanMoves the game's moves in SAN, such as {@code e4 e5 Nf3}
+     */
+    public void addGame(List<String> sanMoves) {
+        ChessGame game = new ChessGame();
+        int plies = Math.min(maxPlies, sanMoves.size());
+        for (int ply = 0; ply < plies; ply++) {
+            int move = Pgn.resolve(game, sanMoves.get(ply));
+            if (move == Move.NONE) {
+                break;
+            }
+            counts.computeIfAbsent(game.zobristKey(), key -> new HashMap<>())
+                    .merge(Move.of(Move.from(move), Move.to(move), Move.promotion(move), 0), 1, Integer::sum);
+            game.doMove(move);
+        }
+        games++;
+    }
+
+    public int games() {
+        return games;
+    }
+
+    /**
+     * Writes the book, leaving out moves played in fewer than minWeight games
+     *
+     * @return the number of records written
+     */
+    public long write(OutputStream out, int minWeight) throws IOException {
+        List<long[]> records = new ArrayList<>();
+        for (Map.Entry<Long, Map<Integer, Integer>> position : counts.entrySet()) {
+            for (Map.Entry<Integer, Integer> move : position.getValue().entrySet()) {
+                if (move.getValue() >= minWeight) {
+                    records.add(new long[]{position.getKey(), move.getKey(), move.getValue()});
+                }
+            }
+        }
+        records.sort((a, b) -> a[0] != b[0] ? Long.compare(a[0], b[0]) : Long.compare(b[2], a[2]));
+
+        DataOutputStream data = new DataOutputStream(out);
+        data.writeInt(BookFormat.MAGIC);
+        data.writeInt(BookFormat.VERSION);
+        data.writeLong(records.size());
+        for (long[] record : records) {
+            data.writeLong(record[0]);
+            data.writeInt((int) record[1]);
+            data.writeInt((int) Math.min(record[2], Integer.MAX_VALUE));
+        }
+        data.flush();
+        return records.size();
+    }
+
+    public static void main(String[] args) throws IOException {
+        List<Path> inputs = new ArrayList<>();
+        Path output = Path.of("book.bin");
+        int plies = DEFAULT_PLIES;
+        int minWeight = 1;
+        for (String arg : args) {
+            if (arg.startsWith("--out=")) {
+                output = Path.of(arg.substring("--out=".length()));
+            } else if (arg.startsWith("--plies=")) {
+                plies = Integer.parseInt(arg.substring("--plies=".length()));
+            } else if (arg.startsWith("--min=")) {
+                minWeight = Integer.parseInt(arg.substring("--min=".length()));
+            } else {
+                inputs.add(Path.of(arg));
+            }
+        }
+        if (inputs.isEmpty()) {
+            System.out.println("Usage: BookBuilder games.pgn [more.pgn ...] [--out=book.bin] [--plies=N] [--min=N]");
+            return;
+        }
+
+        BookBuilder builder = new BookBuilder(plies);
+        for (Path input : inputs) {
+            try (BufferedReader reader = Files.newBufferedReader(input, StandardCharsets.ISO_8859_1)) {
+                System.out.printf("%s: %d games%n", input, builder.addPgn(reader));
+            }
+        }
+        long records;
+        try (OutputStream out = Files.newOutputStream(output)) {
+            records = builder.write(new BufferedOutputStream(out), minWeight);
+        }
+        System.out.printf("Wrote %d moves from %d games to %s%n", records, builder.games(), output);
+    }
+}
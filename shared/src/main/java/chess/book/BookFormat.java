@@ -0,0 +1,21 @@
+package chess.book;
+
+/**
+ * The layout of an opening book file. All values are big-endian.
+ * <p>
+ * The file starts with a header of {@link #MAGIC}, {@link #VERSION} and the
+ * record count as a long. Records follow, each a position's
+ * {@link chess.ChessGame#zobristKey()} as a long, a move encoded with
+ * {@link chess.Move} (squares and promotion only) as an int, and its weight as
+ * an int. Records are sorted by key, and by weight from highest within a key.
+ */
+final class BookFormat {
+    static final int MAGIC = 0x43424F4B; // "CBOK"
+    // 2: position keys include castling rights and the en passant square
+    static final int VERSION = 2;
+    static final int HEADER_BYTES = 16;
+    static final int RECORD_BYTES = 16;
+
+    private BookFormat() {
+    }
+}
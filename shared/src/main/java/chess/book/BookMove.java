@@ -0,0 +1,12 @@
+package chess.book;
+
+import chess.ChessMove;
+
+/**
+ * A move found in an opening book
+ *
+ * @param weight how often the move was played from the position in the games
+ *               the book was built from
+ */
+public record BookMove(ChessMove move, int weight) {
+}
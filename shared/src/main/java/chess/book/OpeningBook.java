@@ -0,0 +1,154 @@
+package chess.book;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.Move;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.random.RandomGenerator;
+
+/**
+ * A read-only opening book built by {@link BookBuilder}.
+ * <p>
+ * The file is memory-mapped rather than read, so opening a book is instant
+ * and its records live in the page cache instead of the heap. A lookup is a
+ * binary search on the position's {@link ChessGame#zobristKey()} over the
+ * sorted records. An OpeningBook is immutable and safe to share between
+ * threads.
+ * <p>
+ * Callers such as bots look a position up before starting the engine and
+ * only search once the game has left the book.
+ */
+public class OpeningBook {
+    private final MappedByteBuffer records;
+    private final long size;
+
+    private OpeningBook(MappedByteBuffer records, long size) {
+        this.records = records;
+        this.size = size;
+    }
+
+    /**
+     * @throws IOException if the file cannot be read or is not an opening book
+     */
+    public static OpeningBook open(Path path) throws IOException {
+        // one buffer can map at most Integer.MAX_VALUE bytes
+        return open(path, Integer.MAX_VALUE);
+    }
+
+    /**
+     * @param maxBytes the largest file that will be mapped
+     */
+    static OpeningBook open(Path path, long maxBytes) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long length = channel.size();
+            if (length < BookFormat.HEADER_BYTES) {
+                throw new IOException("Error: " + path + " is not an opening book");
+            }
+            // checked before mapping, which would reject it less clearly
+            if (length > maxBytes) {
+                throw new IOException("Error: " + path + " is too large to map");
+            }
+            // the mapping stays valid after the channel is closed
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, length);
+            buffer.order(ByteOrder.BIG_ENDIAN);
+            if (buffer.getInt(0) != BookFormat.MAGIC || buffer.getInt(4) != BookFormat.VERSION) {
+                throw new IOException("Error: " + path + " is not an opening book");
+            }
+            long size = buffer.getLong(8);
+            if (size < 0 || BookFormat.HEADER_BYTES + size * BookFormat.RECORD_BYTES != length) {
+                throw new IOException("Error: " + path + " is truncated");
+            }
+            return new OpeningBook(buffer, size);
+        }
+    }
+
+    /**
+     * @return the book at path, or null if there is no file there
+     * @throws IOException if the file exists but cannot be read as a book
+     */
+    public static OpeningBook openIfExists(Path path) throws IOException {
+        return Files.isRegularFile(path) ? open(path) : null;
+    }
+
+    /**
+     * @return the number of moves in the book
+     */
+    public long size() {
+        return size;
+    }
+
+    /**
+     * @return the book moves for the game's position, most played first;
+     * empty once the game is out of the book
+     */
+    public List<BookMove> moves(ChessGame game) {
+        List<BookMove> moves = new ArrayList<>();
+        long key = game.zobristKey();
+        for (long index = firstIndex(key); index < size && key(index) == key; index++) {
+            int offset = offset(index);
+            ChessMove move = Move.toChessMove(records.getInt(offset + 8));
+            // guards against a key collision with another position
+            if (game.isLegal(move)) {
+                moves.add(new BookMove(move, records.getInt(offset + 12)));
+            }
+        }
+        return moves;
+    }
+
+    /**
+     * Picks one of the book moves at random, in proportion to their weights,
+     * so play varies between games while favouring the main lines
+     *
+     * @return a book move, or null if the position is not in the book
+     */
+    public ChessMove pick(ChessGame game, RandomGenerator random) {
+        List<BookMove> moves = moves(game);
+        long total = 0;
+        for (BookMove move : moves) {
+            total += move.weight();
+        }
+        if (total <= 0) {
+            return null;
+        }
+        long target = random.nextLong(total);
+        for (BookMove move : moves) {
+            target -= move.weight();
+            if (target < 0) {
+                return move.move();
+            }
+        }
+        return moves.get(moves.size() - 1).move();
+    }
+
+    // the index of the first record with a key of at least key
+    private long firstIndex(long key) {
+        long low = 0;
+        long high = size;
+        while (low < high) {
+            long mid = (low + high) >>> 1;
+            if (key(mid) < key) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private long key(long index) {
+        return records.getLong(offset(index));
+    }
+
+    private static int offset(long index) {
+        return (int) (BookFormat.HEADER_BYTES + index * BookFormat.RECORD_BYTES);
+    }
+}
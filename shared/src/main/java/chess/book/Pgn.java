@@ -0,0 +1,199 @@
+package chess.book;
+
+import chess.ChessGame;
+import chess.ChessPiece;
+import chess.Move;
+import chess.MoveList;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads the moves of games in PGN (Portable Game Notation).
+ * <p>
+ * Only the main line of each game is kept: tag pairs, comments, variations,
+ * annotation glyphs and move numbers are skipped. Moves are returned as the
+ * SAN (Standard Algebraic Notation) text found in the file and are played
+ * with {@link #resolve}.
+ */
+final class Pgn {
+    private Pgn() {
+    }
+
+    /**
+     * @return the main-line moves of every game in the text, in order
+     */
+    static List<List<String>> games(Reader in) throws IOException {
+        List<List<String>> games = new ArrayList<>();
+        List<String> moves = new ArrayList<>();
+        StringBuilder token = new StringBuilder();
+        int variationDepth = 0;
+        int c;
+        while ((c = in.read()) != -1) {
+            char ch = (char) c;
+            if (ch == '{' || ch == ';') {
+                if (endToken(token, moves, games, variationDepth)) {
+                    moves = new ArrayList<>();
+                }
+                skipPast(in, ch == '{' ? '}' : '\n');
+            } else if (ch == '[' && variationDepth == 0 && token.isEmpty()) {
+                skipPast(in, ']');
+            } else if (ch == '(') {
+                endToken(token, moves, games, variationDepth);
+                variationDepth++;
+            } else if (ch == ')') {
+                token.setLength(0);
+                variationDepth = Math.max(0, variationDepth - 1);
+            } else if (Character.isWhitespace(ch)) {
+                if (endToken(token, moves, games, variationDepth)) {
+                    moves = new ArrayList<>();
+                }
+            } else {
+                token.append(ch);
+            }
+        }
+        if (endToken(token, moves, games, variationDepth) || moves.isEmpty()) {
+            return games;
+        }
+        games.add(moves);
+        return games;
+    }
+
+    // adds a finished token to the game's moves; returns True if it ended the game
+    private static boolean endToken(StringBuilder token, List<String> moves, List<List<String>> games,
+                                    int variationDepth) {
+        String text = token.toString();
+        token.setLength(0);
+        if (text.isEmpty() || variationDepth > 0 || text.startsWith("$")) {
+            return false;
+        }
+        if (text.equals("1-0") || text.equals("0-1") || text.equals("1/2-1/2") || text.equals("*")) {
+            if (!moves.isEmpty()) {
+                games.add(moves);
+            }
+            return true;
+        }
+        // "12." and "12..." are move numbers, but "12.e4" has a move glued on
+        int dot = text.lastIndexOf('.');
+        if (dot >= 0) {
+            text = text.substring(dot + 1);
+        }
+        if (!text.isEmpty() && !Character.isDigit(text.charAt(0))) {
+            moves.add(text);
+        }
+        return false;
+    }
+
+    private static void skipPast(Reader in, char end) throws IOException {
+        int c;
+        do {
+            c = in.read();
+        } while (c != -1 && c != end);
+    }
+
+    /**
+     * Finds the legal move a SAN move stands for, such as {@code Nbd7},
+     * {@code exd5}, {@code e8=Q+} or {@code O-O}.
+     *
+     * @return the move encoded with {@link Move}, or {@link Move#NONE} if no
+     * legal move matches
+     */
+    static int resolve(ChessGame game, String san) {
+        String text = san.replaceAll("[+#!?]", "");
+        ChessGame.TeamColor us = game.getTeamTurn();
+        int homeRank = us == ChessGame.TeamColor.WHITE ? 0 : 7;
+        if (text.equals("O-O") || text.equals("0-0")) {
+            return find(game, ChessPiece.PieceType.KING, homeRank * 8 + 6, null, 4, homeRank);
+        }
+        if (text.equals("O-O-O") || text.equals("0-0-0")) {
+            return find(game, ChessPiece.PieceType.KING, homeRank * 8 + 2, null, 4, homeRank);
+        }
+
+        ChessPiece.PieceType promotion = null;
+        int equals = text.indexOf('=');
+        if (equals >= 0 && equals + 1 < text.length()) {
+            promotion = pieceType(text.charAt(equals + 1));
+            text = text.substring(0, equals);
+        } else if (text.length() > 2 && pieceType(text.charAt(text.length() - 1)) != null
+                && Character.isDigit(text.charAt(text.length() - 2))) {
+            promotion = pieceType(text.charAt(text.length() - 1));
+            text = text.substring(0, text.length() - 1);
+        }
+        if (text.length() < 2) {
+            return Move.NONE;
+        }
+
+        ChessPiece.PieceType type = ChessPiece.PieceType.PAWN;
+        if (Character.isUpperCase(text.charAt(0))) {
+            type = pieceType(text.charAt(0));
+            if (type == null) {
+                return Move.NONE;
+            }
+            text = text.substring(1);
+        }
+        int to = square(text.substring(text.length() - 2));
+        if (to < 0) {
+            return Move.NONE;
+        }
+
+        // whatever is left between the piece and the destination narrows down the start square
+        String from = text.substring(0, text.length() - 2).replace("x", "");
+        int fromFile = -1;
+        int fromRank = -1;
+        for (char ch : from.toCharArray()) {
+            if (ch >= 'a' && ch <= 'h') {
+                fromFile = ch - 'a';
+            } else if (ch >= '1' && ch <= '8') {
+                fromRank = ch - '1';
+            } else {
+                return Move.NONE;
+            }
+        }
+        return find(game, type, to, promotion, fromFile, fromRank);
+    }
+
+    // the one legal move of a piece type to a square, from the given file and rank unless they are -1
+    private static int find(ChessGame game, ChessPiece.PieceType type, int to, ChessPiece.PieceType promotion,
+                            int fromFile, int fromRank) {
+        MoveList moves = new MoveList();
+        game.legalMoves(moves);
+        int found = Move.NONE;
+        for (int i = 0; i < moves.size(); i++) {
+            int move = moves.get(i);
+            int from = Move.from(move);
+            if (game.getBoard().pieceAt(from).getPieceType() != type || Move.to(move) != to || Move.promotion(move) != promotion
+                    || fromFile >= 0 && (from & 7) != fromFile
+                    || fromRank >= 0 && (from >>> 3) != fromRank) {
+                continue;
+            }
+            if (found != Move.NONE) {
+                // ambiguous
+                return Move.NONE;
+            }
+            found = move;
+        }
+        return found;
+    }
+
+    private static int square(String name) {
+        char file = name.charAt(0);
+        char rank = name.charAt(1);
+        if (file < 'a' || file > 'h' || rank < '1' || rank > '8') {
+            return -1;
+        }
+        return (rank - '1') * 8 + (file - 'a');
+    }
+
+    private static ChessPiece.PieceType pieceType(char letter) {
+        return switch (letter) {
+            case 'K' -> ChessPiece.PieceType.KING;
+            case 'Q' -> ChessPiece.PieceType.QUEEN;
+            case 'R' -> ChessPiece.PieceType.ROOK;
+            case 'B' -> ChessPiece.PieceType.BISHOP;
+            case 'N' -> ChessPiece.PieceType.KNIGHT;
+            default -> null;
+        };
+    }
+}
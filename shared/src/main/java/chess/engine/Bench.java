@@ -0,0 +1,101 @@
+package chess.engine;
+
+import chess.ChessGame;
+import chess.Move;
+
+import java.util.List;
+
+/**
+ * Searches a fixed set of positions to a fixed depth and reports the node
+ * rate, for comparing engine changes and sizing the machines that run it.
+ * <p>
+ * Run with {@code mvn -pl shared exec:java -Dexec.mainClass=chess.engine.Bench}.
+ * Arguments, all optional:
+ * <ul>
+ *     <li>a number sets the depth</li>
+ *     <li>{@code --threads=N} searches with N Lazy SMP threads</li>
+ *     <li>{@code --scaling} times the whole set to depth at 1, 2, 4 ... N threads</li>
+ *     <li>{@code --hash=MB} sets the transposition table size</li>
+ * </ul>
+ */
+public class Bench {
+    private static final int DEFAULT_DEPTH = 6;
+
+    static final List<String> POSITIONS = List.of(
+            "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1",
+            "r1bqk1nr/pppp1ppp/2n5/2b1p3/2B1P3/5N2/PPPP1PPP/RNBQK2R w KQkq - 4 4",
+            "r2q1rk1/pp1bbppp/2np1n2/2p5/2BPP3/2N2N2/PP2QPPP/R1B2RK1 b - - 0 9",
+            "r4rk1/1pp1qppp/p1np1n2/2b1p1B1/2B1P1b1/P1NP1N2/1PP1QPPP/R4RK1 w - - 0 10",
+            "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1",
+            "8/5kp1/7p/1R6/6P1/1r5P/5PK1/8 w - - 0 40"
+    );
+
+    public static void main(String[] args) {
+        int depth = DEFAULT_DEPTH;
+        int threads = 1;
+        int hash = Engine.DEFAULT_HASH_MB;
+        boolean scaling = false;
+        for (String arg : args) {
+            if (arg.startsWith("--threads=")) {
+                threads = Integer.parseInt(arg.substring("--threads=".length()));
+            } else if (arg.startsWith("--hash=")) {
+                hash = Integer.parseInt(arg.substring("--hash=".length()));
+            } else if (arg.equals("--scaling")) {
+                scaling = true;
+            } else {
+                depth = Integer.parseInt(arg);
+            }
+        }
+
+        if (scaling) {
+            runScaling(depth, threads, hash);
+        } else {
+            runBench(depth, threads, hash);
+        }
+    }
+
+    private static void runBench(int depth, int threads, int hash) {
+        Engine engine = new Engine(hash, threads);
+        long totalNodes = 0;
+        long totalNanos = 0;
+
+        System.out.printf("%-6s %-6s %7s %12s %9s %12s  %s%n", "#", "move", "score", "nodes", "seconds", "nodes/sec", "pv");
+        for (int i = 0; i < POSITIONS.size(); i++) {
+            SearchResult result = engine.search(ChessGame.fromFen(POSITIONS.get(i)), SearchLimits.depth(depth));
+            totalNodes += result.nodes();
+            totalNanos += result.nanos();
+            System.out.printf("%-6d %-6s %7d %12d %9.3f %12d  %s%n", i + 1, Move.toString(result.move()),
+                    result.score(), result.nodes(), result.nanos() / 1e9, result.nodesPerSecond(), result.pvString());
+        }
+        System.out.printf("%ntotal %d nodes in %.3f s, %.0f nodes/sec at depth %d on %d thread(s)%n", totalNodes,
+                totalNanos / 1e9, totalNodes * 1e9 / Math.max(totalNanos, 1), depth, threads);
+        engine.shutdown();
+    }
+
+    // time-to-depth over the whole set at 1, 2, 4, ... up to the given thread count, each with a fresh table
+    private static void runScaling(int depth, int threads, int hash) {
+        System.out.printf("time to depth %d%n%7s %10s %14s %12s %8s%n", depth, "threads", "seconds", "nodes",
+                "nodes/sec", "speedup");
+        // one untimed pass so the first row is not also paying for JIT compilation
+        Engine warmup = new Engine(hash, 1);
+        for (String fen : POSITIONS) {
+            warmup.search(ChessGame.fromFen(fen), SearchLimits.depth(depth));
+        }
+
+        double baseline = 0;
+        for (int n = 1; n <= threads; n = n * 2 > threads && n != threads ? threads : n * 2) {
+            Engine engine = new Engine(hash, n);
+            long nodes = 0;
+            long start = System.nanoTime();
+            for (String fen : POSITIONS) {
+                nodes += engine.search(ChessGame.fromFen(fen), SearchLimits.depth(depth)).nodes();
+            }
+            double seconds = (System.nanoTime() - start) / 1e9;
+            engine.shutdown();
+            if (n == 1) {
+                baseline = seconds;
+            }
+            System.out.printf("%7d %10.3f %14d %12.0f %7.2fx%n", n, seconds, nodes, nodes / seconds, baseline / seconds);
+        }
+    }
+}
@@ -0,0 +1,193 @@
+package chess.engine;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.tablebase.Tablebases;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Finds good moves for computer opponents and hints with an iterative
+ * deepening alpha-beta search.
+ * <p>
+ * The game passed in is never modified; each search works on a copy. An
+ * Engine runs one search at a time, and {@link #stop} may be called from
+ * another thread to cut the current one short. Its transposition table is
+ * kept between searches, so later searches of the same game start ahead.
+ * <p>
+ * With more than one thread the engine uses Lazy SMP: helper threads run the
+ * same iterative deepening on their own copies of the game, odd-numbered
+ * helpers starting a ply deeper, and share only the transposition table.
+ * What they store there steers and cuts off the main thread's search, whose
+ * result is returned. Helpers stop when the main thread finishes.
+ */
+public class Engine {
+    public static final int DEFAULT_HASH_MB = 16;
+
+    private final TranspositionTable table;
+    private final int threads;
+    private final ExecutorService helpers;
+    private volatile Search[] running = new Search[0];
+    private volatile Tablebases tablebases;
+
+    public Engine() {
+        this(DEFAULT_HASH_MB, 1);
+    }
+
+    /**
+     * @param hashMegabytes the memory budget for the transposition table
+     * @param threads       the number of search threads, including the caller's
+     */
+    public Engine(int hashMegabytes, int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("Error: the engine needs at least one thread");
+        }
+        this.table = new TranspositionTable(hashMegabytes);
+        this.threads = threads;
+        AtomicInteger helperCount = new AtomicInteger();
+        this.helpers = threads == 1 ? null : Executors.newFixedThreadPool(threads - 1, task -> {
+            Thread thread = new Thread(task, "engine-helper-" + helperCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * @param game   the position to search, with the side to move to play
+     * @param limits when to stop searching
+     * @return the best move found, or null if the side to move has no legal move
+     */
+    public ChessMove bestMove(ChessGame game, SearchLimits limits) {
+        return search(game, limits).bestMove();
+    }
+
+    /**
+     * Like {@link #bestMove}, but also reports the score, depth reached, principal
+     * variation and node rate. The node count includes every thread's nodes.
+     */
+    public SearchResult search(ChessGame game, SearchLimits limits) {
+        return analyse(game, limits, 1, null).get(0);
+    }
+
+    /**
+     * Searches the best few moves rather than only the best one (multi-PV),
+     * reporting each iteration as it finishes so callers can show the
+     * analysis deepening instead of waiting for the end.
+     *
+     * @param lines    how many moves to report, best first; fewer are reported
+     *                 if the side to move has fewer legal moves
+     * @param listener called on the searching thread with the lines of each
+     *                 finished iteration; may be null
+     * @return the lines of the deepest finished iteration. Their node counts
+     * include every thread's nodes.
+     */
+    public List<SearchResult> analyse(ChessGame game, SearchLimits limits, int lines,
+                                      Consumer<List<SearchResult>> listener) {
+        if (lines < 1) {
+            throw new IllegalArgumentException("Error: analysis needs at least one line");
+        }
+        table.newSearch();
+        Search[] searches = new Search[threads];
+        for (int id = 0; id < threads; id++) {
+            searches[id] = new Search(game, table, id, tablebases);
+        }
+        running = searches;
+
+        // helpers have no node budget of their own; they run until the main search ends
+        SearchLimits helperLimits = limits.withNodes(Long.MAX_VALUE);
+        List<Future<?>> futures = new ArrayList<>(threads - 1);
+        for (int id = 1; id < threads; id++) {
+            Search helper = searches[id];
+            futures.add(helpers.submit(() -> helper.run(helperLimits)));
+        }
+
+        List<SearchResult> results;
+        try {
+            results = searches[0].run(limits, lines, listener);
+        } finally {
+            for (int id = 1; id < threads; id++) {
+                searches[id].stop();
+            }
+            awaitHelpers(futures);
+            running = new Search[0];
+        }
+
+        long nodes = 0;
+        for (Search search : searches) {
+            nodes += search.nodes();
+        }
+        List<SearchResult> totals = new ArrayList<>(results.size());
+        for (SearchResult result : results) {
+            totals.add(new SearchResult(result.move(), result.score(), result.depth(), nodes, result.nanos(), result.pv()));
+        }
+        return totals;
+    }
+
+    private static void awaitHelpers(List<Future<?>> futures) {
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Error: search helper failed", e.getCause());
+            }
+        }
+    }
+
+    /**
+     * Forgets everything learned from earlier searches, e.g. before starting
+     * an unrelated game
+     */
+    public void clear() {
+        table.clear();
+    }
+
+    /**
+     * @return how full the transposition table is, in thousandths
+     */
+    public int hashfull() {
+        return table.hashfull();
+    }
+
+    /**
+     * Lets searches score positions with few pieces exactly instead of
+     * searching them, which also finds long forced mates in those endings
+     *
+     * @param tablebases the tables to use, or null to search every position
+     */
+    public void setTablebases(Tablebases tablebases) {
+        this.tablebases = tablebases;
+    }
+
+    public int threads() {
+        return threads;
+    }
+
+    /**
+     * Stops the running search, if any, which then returns the result of its
+     * last finished iteration
+     */
+    public void stop() {
+        for (Search search : running) {
+            search.stop();
+        }
+    }
+
+    /**
+     * Ends the helper threads; the engine cannot search afterwards
+     */
+    public void shutdown() {
+        if (helpers != null) {
+            helpers.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package chess.engine;
+
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.PieceSquareTables;
+
+/**
+ * Static evaluation in centipawns, from the point of view of the side to move.
+ * <p>
+ * The score is material plus piece-square values, blended from middlegame to
+ * endgame values as the phase falls. The board keeps both sums and the phase
+ * up to date on every move, so evaluating is a few arithmetic operations
+ * rather than a scan of the board.
+ */
+public final class Evaluator {
+    /**
+     * Piece values for move ordering, indexed by {@link chess.ChessPiece.PieceType} ordinal
+     */
+    public static final int[] VALUES = {0, 900, 330, 320, 500, 100};
+
+    private Evaluator() {
+    }
+
+    public static int evaluate(ChessGame game) {
+        ChessBoard board = game.getBoard();
+        int phase = Math.min(board.phase(), PieceSquareTables.MAX_PHASE);
+        int score = (board.middlegameScore() * phase
+                + board.endgameScore() * (PieceSquareTables.MAX_PHASE - phase)) / PieceSquareTables.MAX_PHASE;
+        return game.getTeamTurn() == ChessGame.TeamColor.WHITE ? score : -score;
+    }
+}
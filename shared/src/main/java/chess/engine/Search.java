@@ -0,0 +1,385 @@
+package chess.engine;
+
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.ChessPiece;
+import chess.Move;
+import chess.MoveList;
+import chess.tablebase.TablebaseResult;
+import chess.tablebase.Tablebases;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * One thread's iterative deepening alpha-beta search. It plays moves on its
+ * own copy of the game and keeps its own move ordering tables, so a Search
+ * is never shared between threads.
+ * <p>
+ * Every finished node is stored in a {@link TranspositionTable}, which may be
+ * shared with other threads. A stored result that is deep enough ends the
+ * node at once, and a stored best move is always tried first.
+ * <p>
+ * After that, moves are tried in the order: captures by most valuable victim, then least
+ * valuable attacker (MVV-LVA) and promotions, the two killer moves that last
+ * caused a cutoff at the same ply, then quiet moves by their history score.
+ * Leaves are resolved with a captures-only quiescence search, and positions
+ * with few enough pieces are scored from the tablebases when there are any.
+ * <p>
+ * For multi-PV analysis each iteration is searched once per line, with the
+ * root moves of the lines already found skipped.
+ */
+final class Search {
+    static final int MATE = 30000;
+    static final int INFINITY = 32000;
+
+    static final int MAX_PLY = SearchLimits.MAX_DEPTH * 2;
+    // scores at or beyond this are mates: found in the tree, or a tablebase mate probed below it
+    static final int MATE_BOUND = MATE - MAX_PLY - Tablebases.MAX_PLIES;
+    private static final int CHECK_INTERVAL = 1024;
+    private static final int HASH_MOVE_ORDER = 2_000_000;
+    private static final int CAPTURE_ORDER = 1_000_000;
+    private static final int KILLER_ORDER = 900_000;
+    private static final int HISTORY_LIMIT = 800_000;
+
+    private final ChessGame game;
+    private final ChessBoard board;
+    private final TranspositionTable table;
+    private final int id;
+    private final Tablebases tablebases;
+    private final MoveList[] moves = new MoveList[MAX_PLY];
+    private final int[][] order = new int[MAX_PLY][];
+    private final int[][] killers = new int[MAX_PLY][2];
+    private final int[][] history = new int[12][64];
+    private final int[][] pv = new int[MAX_PLY][MAX_PLY];
+    private final int[] pvLength = new int[MAX_PLY];
+
+    // root moves already reported as better lines this iteration
+    private int[] excluded = new int[0];
+    private int excludedCount;
+
+    private volatile boolean stopRequested;
+    private boolean stopped;
+    private long nodes;
+    private long nodeLimit;
+    private long deadline;
+
+    /**
+     * @param id         0 for the main search; Lazy SMP helpers are numbered from 1
+     * @param tablebases endgame tables to end the search with, or null
+     */
+    Search(ChessGame game, TranspositionTable table, int id, Tablebases tablebases) {
+        this.game = game.copy();
+        this.board = this.game.getBoard();
+        this.table = table;
+        this.id = id;
+        this.tablebases = tablebases;
+        for (int ply = 0; ply < MAX_PLY; ply++) {
+            moves[ply] = new MoveList();
+            order[ply] = new int[256];
+        }
+    }
+
+    /**
+     * Asks a running search to stop; it returns its last finished iteration
+     */
+    void stop() {
+        stopRequested = true;
+    }
+
+    SearchResult run(SearchLimits limits) {
+        return run(limits, 1, null).get(0);
+    }
+
+    /**
+     * Searches the best few root moves, each iteration finding the best move
+     * left once the lines already found that iteration are set aside.
+     *
+     * @param lines    how many root moves to report; fewer if there are fewer legal moves
+     * @param listener told the lines of each finished iteration, best first; may be null
+     * @return the lines of the deepest finished iteration, best first. If no
+     * iteration finished this is one line, holding any legal move or none.
+     */
+    List<SearchResult> run(SearchLimits limits, int lines, Consumer<List<SearchResult>> listener) {
+        long start = System.nanoTime();
+        nodeLimit = limits.nodes();
+        deadline = limits.millis() >= Long.MAX_VALUE / 1_000_000 ? Long.MAX_VALUE : start + limits.millis() * 1_000_000;
+        lines = Math.min(lines, legalRootMoves());
+        excluded = new int[Math.max(lines - 1, 0)];
+
+        List<SearchResult> finished = List.of();
+        // odd helpers start a ply deeper so the threads are not all on the same iteration
+        for (int depth = 1 + (id & 1); depth <= limits.depth() && lines > 0; depth++) {
+            List<SearchResult> current = new ArrayList<>(lines);
+            excludedCount = 0;
+            for (int line = 0; line < lines && !stopped; line++) {
+                int score = negamax(depth, -INFINITY, INFINITY, 0);
+                if (stopped) {
+                    break;
+                }
+                int[] pvLine = Arrays.copyOf(pv[0], pvLength[0]);
+                current.add(new SearchResult(pvLine[0], score, depth, nodes, System.nanoTime() - start, pvLine));
+                if (line + 1 < lines) {
+                    excluded[excludedCount++] = pvLine[0];
+                }
+            }
+            if (stopped) {
+                break;
+            }
+            finished = current;
+            if (listener != null) {
+                listener.accept(finished);
+            }
+            if (Math.abs(finished.get(0).score()) >= MATE - depth) {
+                break;
+            }
+        }
+        excludedCount = 0;
+        if (finished.isEmpty()) {
+            int move = firstLegalMove();
+            int[] pvLine = move == Move.NONE ? new int[0] : new int[]{move};
+            return List.of(new SearchResult(move, 0, 0, nodes, System.nanoTime() - start, pvLine));
+        }
+        return finished;
+    }
+
+    private int legalRootMoves() {
+        MoveList list = moves[0];
+        generate(list);
+        return list.size();
+    }
+
+    private boolean isExcluded(int move) {
+        for (int i = 0; i < excludedCount; i++) {
+            if (excluded[i] == move) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private int firstLegalMove() {
+        MoveList list = moves[0];
+        generate(list);
+        return list.isEmpty() ? Move.NONE : list.get(0);
+    }
+
+    private int negamax(int depth, int alpha, int beta, int ply) {
+        pvLength[ply] = 0;
+        if (ply > 0 && (game.getHalfmoveClock() >= 100 || game.repetitions() >= 2)) {
+            return 0;
+        }
+        if (ply > 0 && tablebases != null && Long.bitCount(board.occupied()) <= Tablebases.MAX_PIECES) {
+            TablebaseResult known = tablebases.probe(game);
+            if (known != null) {
+                return switch (known.outcome()) {
+                    case WIN -> MATE - ply - known.plies();
+                    case LOSS -> -(MATE - ply - known.plies());
+                    case DRAW -> 0;
+                };
+            }
+        }
+        boolean inCheck = game.isInCheck(game.getTeamTurn());
+        if (inCheck) {
+            depth++;
+        }
+        if (depth <= 0 || ply >= MAX_PLY - 1) {
+            return quiesce(alpha, beta, ply);
+        }
+        if (countNode()) {
+            return 0;
+        }
+
+        long key = game.zobristKey();
+        long entry = table.probe(key);
+        int hashMove = Move.NONE;
+        if (entry != 0) {
+            hashMove = TranspositionTable.move(entry);
+            int stored = TranspositionTable.scoreFromTable(TranspositionTable.score(entry), ply);
+            int bound = TranspositionTable.bound(entry);
+            if (ply > 0 && TranspositionTable.depth(entry) >= depth
+                    && (bound == TranspositionTable.EXACT
+                    || bound == TranspositionTable.LOWER && stored >= beta
+                    || bound == TranspositionTable.UPPER && stored <= alpha)) {
+                return stored;
+            }
+        }
+
+        MoveList list = moves[ply];
+        generate(list);
+        scoreMoves(list, order[ply], ply, hashMove);
+
+        int originalAlpha = alpha;
+        int best = -INFINITY;
+        int bestMove = Move.NONE;
+        int legal = 0;
+        for (int i = 0; i < list.size(); i++) {
+            int move = pickNext(list, order[ply], i);
+            if (ply == 0 && isExcluded(move)) {
+                continue;
+            }
+            game.doMove(move);
+            legal++;
+            int score = -negamax(depth - 1, -beta, -alpha, ply + 1);
+            game.undoMove();
+            if (stopped) {
+                return 0;
+            }
+
+            if (score > best) {
+                best = score;
+                bestMove = move;
+                if (score > alpha) {
+                    alpha = score;
+                    pv[ply][0] = move;
+                    System.arraycopy(pv[ply + 1], 0, pv[ply], 1, pvLength[ply + 1]);
+                    pvLength[ply] = pvLength[ply + 1] + 1;
+                    if (alpha >= beta) {
+                        if (!Move.isCapture(move) && !Move.isPromotion(move)) {
+                            rememberQuietCutoff(move, depth, ply);
+                        }
+                        break;
+                    }
+                }
+            }
+        }
+
+        if (legal == 0) {
+            return inCheck ? -MATE + ply : 0;
+        }
+        if (ply == 0 && excludedCount > 0) {
+            // the best of the remaining root moves says nothing true about the position
+            return best;
+        }
+        int bound = best >= beta ? TranspositionTable.LOWER
+                : best > originalAlpha ? TranspositionTable.EXACT : TranspositionTable.UPPER;
+        table.store(key, bound == TranspositionTable.UPPER ? Move.NONE : bestMove,
+                TranspositionTable.scoreToTable(best, ply), depth, bound);
+        return best;
+    }
+
+    private int quiesce(int alpha, int beta, int ply) {
+        if (countNode()) {
+            return 0;
+        }
+        int standPat = Evaluator.evaluate(game);
+        if (standPat >= beta || ply >= MAX_PLY - 1) {
+            return standPat;
+        }
+        if (standPat > alpha) {
+            alpha = standPat;
+        }
+
+        MoveList list = moves[ply];
+        generate(list);
+        int kept = 0;
+        for (int i = 0; i < list.size(); i++) {
+            int move = list.get(i);
+            if (Move.isCapture(move) || Move.isPromotion(move)) {
+                list.set(kept++, move);
+            }
+        }
+        list.truncate(kept);
+        scoreMoves(list, order[ply], ply, Move.NONE);
+
+        for (int i = 0; i < list.size(); i++) {
+            int move = pickNext(list, order[ply], i);
+            game.doMove(move);
+            int score = -quiesce(-beta, -alpha, ply + 1);
+            game.undoMove();
+            if (stopped) {
+                return 0;
+            }
+            if (score >= beta) {
+                return score;
+            }
+            if (score > alpha) {
+                alpha = score;
+            }
+        }
+        return alpha;
+    }
+
+    // counts a node and reports whether a limit has been reached
+    private boolean countNode() {
+        nodes++;
+        if (nodes >= nodeLimit || stopRequested
+                || (nodes % CHECK_INTERVAL == 0 && System.nanoTime() > deadline)) {
+            stopped = true;
+        }
+        return stopped;
+    }
+
+    // legal moves for the side to move, so none has to be played to be checked
+    private void generate(MoveList list) {
+        list.clear();
+        game.legalMoves(list);
+    }
+
+    private void scoreMoves(MoveList list, int[] scores, int ply, int hashMove) {
+        for (int i = 0; i < list.size(); i++) {
+            int move = list.get(i);
+            ChessPiece mover = board.pieceAt(Move.from(move));
+            int score;
+            if (move == hashMove) {
+                score = HASH_MOVE_ORDER;
+            } else if (Move.isCapture(move)) {
+                int victim = Move.isEnPassant(move) ? ChessPiece.PieceType.PAWN.ordinal()
+                        : board.pieceAt(Move.to(move)).getPieceType().ordinal();
+                score = CAPTURE_ORDER + Evaluator.VALUES[victim] * 16 - Evaluator.VALUES[mover.getPieceType().ordinal()] / 16;
+            } else if (Move.isPromotion(move)) {
+                score = CAPTURE_ORDER + Evaluator.VALUES[Move.promotionOrdinal(move)];
+            } else if (move == killers[ply][0]) {
+                score = KILLER_ORDER + 1;
+            } else if (move == killers[ply][1]) {
+                score = KILLER_ORDER;
+            } else {
+                score = history[ChessBoard.pieceIndex(mover.getTeamColor(), mover.getPieceType())][Move.to(move)];
+            }
+            scores[i] = score;
+        }
+    }
+
+    // selection sort step: moves the best remaining move to index and returns it
+    private static int pickNext(MoveList list, int[] scores, int index) {
+        int best = index;
+        for (int i = index + 1; i < list.size(); i++) {
+            if (scores[i] > scores[best]) {
+                best = i;
+            }
+        }
+        int move = list.get(best);
+        if (best != index) {
+            list.set(best, list.get(index));
+            list.set(index, move);
+            int score = scores[best];
+            scores[best] = scores[index];
+            scores[index] = score;
+        }
+        return move;
+    }
+
+    private void rememberQuietCutoff(int move, int depth, int ply) {
+        if (killers[ply][0] != move) {
+            killers[ply][1] = killers[ply][0];
+            killers[ply][0] = move;
+        }
+        // the move is undone, so its piece is back on the start square
+        ChessPiece mover = board.pieceAt(Move.from(move));
+        int[] scores = history[ChessBoard.pieceIndex(mover.getTeamColor(), mover.getPieceType())];
+        scores[Move.to(move)] += depth * depth;
+        if (scores[Move.to(move)] >= HISTORY_LIMIT) {
+            for (int[] row : history) {
+                for (int i = 0; i < row.length; i++) {
+                    row[i] /= 2;
+                }
+            }
+        }
+    }
+
+    long nodes() {
+        return nodes;
+    }
+}
@@ -0,0 +1,63 @@
+package chess.engine;
+
+import chess.ChessMove;
+import chess.Move;
+
+/**
+ * The outcome of a search.
+ *
+ * @param move  the best move, encoded with {@link Move}, or {@link Move#NONE}
+ *              if the side to move has no legal move
+ * @param score the score in centipawns from the side to move's point of view;
+ *              see {@link #isMate()}
+ * @param depth the deepest iteration that finished
+ * @param nodes positions visited, including quiescence search
+ * @param nanos time spent searching
+ * @param pv    the expected line of play, starting with move
+ */
+public record SearchResult(int move, int score, int depth, long nodes, long nanos, int[] pv) {
+
+    /**
+     * @return the best move, or null if the side to move has no legal move
+     */
+    public ChessMove bestMove() {
+        return move == Move.NONE ? null : Move.toChessMove(move);
+    }
+
+    public long nodesPerSecond() {
+        return nodes * 1_000_000_000L / Math.max(nanos, 1);
+    }
+
+    /**
+     * @return True if the score is a forced mate, for either side
+     */
+    public boolean isMate() {
+        return Math.abs(score) >= Search.MATE_BOUND;
+    }
+
+    /**
+     * @return the number of moves until mate, negative when the side to move
+     * is being mated, or 0 if the score is not a mate
+     */
+    public int mateIn() {
+        if (!isMate()) {
+            return 0;
+        }
+        int plies = Search.MATE - Math.abs(score);
+        return score > 0 ? (plies + 1) / 2 : -(plies / 2);
+    }
+
+    /**
+     * @return the principal variation as moves like {@code e2e4 e7e5}
+     */
+    public String pvString() {
+        StringBuilder out = new StringBuilder();
+        for (int move : pv) {
+            if (!out.isEmpty()) {
+                out.append(' ');
+            }
+            out.append(Move.toString(move));
+        }
+        return out.toString();
+    }
+}
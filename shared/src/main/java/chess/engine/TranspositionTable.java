@@ -0,0 +1,196 @@
+package chess.engine;
+
+import chess.Move;
+
+import java.util.Arrays;
+
+/**
+ * A fixed-size hash table of search results keyed by Zobrist key, shared by
+ * every thread searching with one {@link Engine}.
+ * <p>
+ * Entries live in a single {@code long[]} allocated up front, two longs
+ * each: the key XORed with the data, then the data. There are no locks, so
+ * two threads can write the same entry at once and leave it torn; a probe
+ * only accepts an entry whose first long XORs with its second back to the
+ * probed key, which a torn or foreign entry fails.
+ * <p>
+ * Entries are grouped in buckets of {@value #BUCKET} by the low bits of the
+ * key. A store replaces the entry for the same position if there is one,
+ * otherwise the entry that is least worth keeping: the shallowest, with
+ * entries left over from earlier searches counting as shallower still.
+ */
+public final class TranspositionTable {
+    public static final int EXACT = 1;
+    public static final int LOWER = 2;
+    public static final int UPPER = 3;
+
+    private static final int BUCKET = 4;
+    private static final int ENTRY_LONGS = 2;
+    private static final long BYTES_PER_ENTRY = ENTRY_LONGS * Long.BYTES;
+
+    // data layout: move (20 bits) | score + 32768 (16) | depth (8) | bound (2) | generation (6)
+    private static final int SCORE_SHIFT = 20;
+    private static final int DEPTH_SHIFT = 36;
+    private static final int BOUND_SHIFT = 44;
+    private static final int GENERATION_SHIFT = 46;
+    private static final int GENERATIONS = 64;
+
+    private final long[] table;
+    private final long bucketMask;
+    private volatile int generation;
+
+    /**
+     * @param megabytes the memory to use; the table takes the largest power
+     *                  of two number of entries that fits
+     */
+    public TranspositionTable(int megabytes) {
+        if (megabytes < 1) {
+            throw new IllegalArgumentException("Error: the transposition table needs at least 1 MB");
+        }
+        long entries = Long.highestOneBit(megabytes * 1024L * 1024L / BYTES_PER_ENTRY);
+        entries = Math.min(entries, Integer.highestOneBit(Integer.MAX_VALUE - 8) / ENTRY_LONGS);
+        table = new long[(int) (entries * ENTRY_LONGS)];
+        bucketMask = entries / BUCKET - 1;
+    }
+
+    /**
+     * @return the number of entries the table holds
+     */
+    public int capacity() {
+        return table.length / ENTRY_LONGS;
+    }
+
+    /**
+     * Marks the start of a new search so older entries are replaced first
+     */
+    public void newSearch() {
+        generation = (generation + 1) % GENERATIONS;
+    }
+
+    public void clear() {
+        Arrays.fill(table, 0);
+        generation = 0;
+    }
+
+    /**
+     * @return the entry's data for the key, or 0 if the table has none;
+     * unpack it with the static accessors
+     */
+    public long probe(long key) {
+        int index = bucketIndex(key);
+        for (int i = 0; i < BUCKET * ENTRY_LONGS; i += ENTRY_LONGS) {
+            long data = table[index + i + 1];
+            if ((table[index + i] ^ data) == key && data != 0) {
+                return data;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * @param key   the position's Zobrist key
+     * @param move  the best move found, or {@link Move#NONE}
+     * @param score the score, already adjusted with {@link #scoreToTable}
+     * @param depth the depth searched
+     * @param bound {@link #EXACT}, {@link #LOWER} or {@link #UPPER}
+     */
+    public void store(long key, int move, int score, int depth, int bound) {
+        int current = generation;
+        int index = bucketIndex(key);
+        int victim = index;
+        int victimWorth = Integer.MAX_VALUE;
+        for (int i = 0; i < BUCKET * ENTRY_LONGS; i += ENTRY_LONGS) {
+            long data = table[index + i + 1];
+            if ((table[index + i] ^ data) == key) {
+                // keep a deeper result for the same position from this search, but not its move
+                if (depth(data) > depth && generation(data) == current && bound != EXACT) {
+                    return;
+                }
+                if (move == Move.NONE) {
+                    move = move(data);
+                }
+                victim = index + i;
+                break;
+            }
+            int age = (current - generation(data) + GENERATIONS) % GENERATIONS;
+            int worth = data == 0 ? Integer.MIN_VALUE : depth(data) - 8 * age;
+            if (worth < victimWorth) {
+                victimWorth = worth;
+                victim = index + i;
+            }
+        }
+        long data = (move & 0xFFFFFL)
+                | ((long) (score + 32768) & 0xFFFF) << SCORE_SHIFT
+                | ((long) Math.min(depth, 255)) << DEPTH_SHIFT
+                | ((long) bound) << BOUND_SHIFT
+                | ((long) current) << GENERATION_SHIFT;
+        table[victim] = key ^ data;
+        table[victim + 1] = data;
+    }
+
+    /**
+     * @return how full the table is in thousandths, counting only entries from
+     * the current search, estimated from the first thousand entries
+     */
+    public int hashfull() {
+        int current = generation;
+        int sample = Math.min(1000, capacity());
+        int used = 0;
+        for (int i = 0; i < sample; i++) {
+            long data = table[i * ENTRY_LONGS + 1];
+            if (data != 0 && generation(data) == current) {
+                used++;
+            }
+        }
+        return used * 1000 / sample;
+    }
+
+    private int bucketIndex(long key) {
+        return (int) (key & bucketMask) * BUCKET * ENTRY_LONGS;
+    }
+
+    public static int move(long data) {
+        return (int) (data & 0xFFFFF);
+    }
+
+    public static int score(long data) {
+        return (int) ((data >>> SCORE_SHIFT) & 0xFFFF) - 32768;
+    }
+
+    public static int depth(long data) {
+        return (int) ((data >>> DEPTH_SHIFT) & 0xFF);
+    }
+
+    public static int bound(long data) {
+        return (int) ((data >>> BOUND_SHIFT) & 3);
+    }
+
+    private static int generation(long data) {
+        return (int) ((data >>> GENERATION_SHIFT) & (GENERATIONS - 1));
+    }
+
+    /**
+     * Mate scores count plies from the root; the table stores them counted
+     * from the position instead, so they stay right when it is reached by a
+     * different path
+     */
+    public static int scoreToTable(int score, int ply) {
+        if (score >= Search.MATE_BOUND) {
+            return score + ply;
+        }
+        if (score <= -Search.MATE_BOUND) {
+            return score - ply;
+        }
+        return score;
+    }
+
+    public static int scoreFromTable(int score, int ply) {
+        if (score >= Search.MATE_BOUND) {
+            return score - ply;
+        }
+        if (score <= -Search.MATE_BOUND) {
+            return score + ply;
+        }
+        return score;
+    }
+}
@@ -0,0 +1,111 @@
+package chess.perft;
+
+import chess.ChessGame;
+import chess.Move;
+import chess.MoveList;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Runs perft on a fork/join pool. The tree is split at the root, and
+ * optionally again at the second ply, into tasks that each walk their
+ * subtree on a private copy of the game, so no board is shared between
+ * threads.
+ */
+public class ParallelPerft {
+    // below this many plies a subtree is too small to be worth splitting again
+    private static final int MIN_SPLIT_DEPTH = 4;
+
+    private final ForkJoinPool pool;
+    private final boolean splitSecondPly;
+
+    /**
+     * @param threads        number of worker threads
+     * @param splitSecondPly also split each root move's subtree per reply,
+     *                       which evens out the work when root moves differ a lot
+     */
+    public ParallelPerft(int threads, boolean splitSecondPly) {
+        this.pool = new ForkJoinPool(threads);
+        this.splitSecondPly = splitSecondPly;
+    }
+
+    public long count(ChessGame game, int depth) {
+        long nodes = 0;
+        for (long subtree : divide(game, depth).values()) {
+            nodes += subtree;
+        }
+        return depth == 0 ? 1 : nodes;
+    }
+
+    /**
+     * @return the node count below each legal root move, keyed by the move in
+     * coordinate notation (e.g. "e2e4"), in generation order
+     */
+    public Map<String, Long> divide(ChessGame game, int depth) {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        if (depth == 0) {
+            return counts;
+        }
+        MoveList moves = new MoveList();
+        Perft.generate(game, moves);
+
+        List<Subtree> tasks = new ArrayList<>(moves.size());
+        for (int i = 0; i < moves.size(); i++) {
+            ChessGame child = game.copy();
+            child.doMove(moves.get(i));
+            tasks.add(new Subtree(child, depth - 1, splitSecondPly));
+        }
+        pool.invoke(new RecursiveTask<Void>() {
+            @Override
+            protected Void compute() {
+                invokeAll(tasks);
+                return null;
+            }
+        });
+        for (int i = 0; i < moves.size(); i++) {
+            counts.put(Move.toString(moves.get(i)), tasks.get(i).join());
+        }
+        return counts;
+    }
+
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    private static class Subtree extends RecursiveTask<Long> {
+        private final ChessGame game;
+        private final int depth;
+        private final boolean split;
+
+        Subtree(ChessGame game, int depth, boolean split) {
+            this.game = game;
+            this.depth = depth;
+            this.split = split;
+        }
+
+        @Override
+        protected Long compute() {
+            if (!split || depth < MIN_SPLIT_DEPTH) {
+                return new Perft(game).count(depth);
+            }
+            MoveList moves = new MoveList();
+            Perft.generate(game, moves);
+            List<Subtree> children = new ArrayList<>(moves.size());
+            for (int i = 0; i < moves.size(); i++) {
+                ChessGame child = game.copy();
+                child.doMove(moves.get(i));
+                children.add(new Subtree(child, depth - 1, false));
+            }
+            long nodes = 0;
+            for (Subtree child : invokeAll(children)) {
+                nodes += child.join();
+            }
+            return nodes;
+        }
+    }
+}
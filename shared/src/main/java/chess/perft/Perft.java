@@ -0,0 +1,209 @@
+package chess.perft;
+
+import chess.ChessGame;
+import chess.MoveList;
+
+import java.util.List;
+
+/**
+ * Counts the leaf nodes of the legal move tree to a fixed depth ("perft").
+ * Comparing the counts against published reference numbers checks move
+ * generation, and timing them measures its throughput.
+ * <p>
+ * Run with {@code mvn -pl shared exec:java}. Arguments, all optional:
+ * <ul>
+ *     <li>a number caps the depth searched for every position</li>
+ *     <li>{@code --threads=N} runs on N threads with {@link ParallelPerft}</li>
+ *     <li>{@code --split} also splits the work at the second ply</li>
+ *     <li>{@code --divide=NAME} prints the count below each root move of one position</li>
+ *     <li>{@code --scaling} times the largest count at 1, 2, 4 ... N threads</li>
+ * </ul>
+ */
+public class Perft {
+
+    /**
+     * A starting position in FEN and its known node counts, where
+     * expected[d - 1] is the count at depth d
+     */
+    public record Position(String name, String fen, long... expected) {
+        public ChessGame load() {
+            return ChessGame.fromFen(fen);
+        }
+    }
+
+    public static final List<Position> POSITIONS = List.of(
+            new Position("start", "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1",
+                    20, 400, 8902, 197281, 4865609),
+            new Position("kiwipete", "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1",
+                    48, 2039, 97862, 4085603),
+            new Position("endgame", "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1",
+                    14, 191, 2812, 43238, 674624),
+            new Position("position4", "r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1",
+                    6, 264, 9467, 422333),
+            new Position("position5", "rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R w KQ - 1 8",
+                    44, 1486, 62379, 2103487),
+            new Position("middlegame", "r4rk1/1pp1qppp/p1np1n2/2b1p1B1/2B1P1b1/P1NP1N2/1PP1QPPP/R4RK1 w - - 0 10",
+                    46, 2079, 89890, 3894594)
+    );
+
+    private final ChessGame game;
+    private MoveList[] buffers = new MoveList[0];
+
+    public Perft(ChessGame game) {
+        this.game = game;
+    }
+
+    /**
+     * @return the number of leaf nodes depth plies below the current position
+     */
+    public long count(int depth) {
+        if (buffers.length < depth) {
+            buffers = new MoveList[depth];
+            for (int i = 0; i < depth; i++) {
+                buffers[i] = new MoveList();
+            }
+        }
+        return count(depth, 0);
+    }
+
+    private long count(int depth, int ply) {
+        if (depth == 0) {
+            return 1;
+        }
+        MoveList moves = buffers[ply];
+        moves.clear();
+        generate(game, moves);
+        if (depth == 1) {
+            return moves.size();
+        }
+
+        long nodes = 0;
+        for (int i = 0; i < moves.size(); i++) {
+            game.doMove(moves.get(i));
+            nodes += count(depth - 1, ply + 1);
+            game.undoMove();
+        }
+        return nodes;
+    }
+
+    /**
+     * Appends every legal move for the side to move
+     */
+    public static void generate(ChessGame game, MoveList moves) {
+        game.legalMoves(moves);
+    }
+
+    public static void main(String[] args) {
+        int maxDepth = Integer.MAX_VALUE;
+        int threads = 1;
+        boolean split = false;
+        boolean scaling = false;
+        String divide = null;
+        for (String arg : args) {
+            if (arg.startsWith("--threads=")) {
+                threads = Integer.parseInt(arg.substring("--threads=".length()));
+            } else if (arg.equals("--split")) {
+                split = true;
+            } else if (arg.equals("--scaling")) {
+                scaling = true;
+            } else if (arg.startsWith("--divide=")) {
+                divide = arg.substring("--divide=".length());
+            } else {
+                maxDepth = Integer.parseInt(arg);
+            }
+        }
+
+        if (divide != null) {
+            runDivide(find(divide), maxDepth, threads, split);
+        } else if (scaling) {
+            runScaling(maxDepth, threads, split);
+        } else if (!runChecks(maxDepth, threads, split)) {
+            System.out.println("perft counts do not match the reference numbers");
+            System.exit(1);
+        }
+    }
+
+    private static Position find(String name) {
+        for (Position position : POSITIONS) {
+            if (position.name().equals(name)) {
+                return position;
+            }
+        }
+        throw new IllegalArgumentException("Error: no perft position named " + name);
+    }
+
+    private static long run(Position position, int depth, ParallelPerft parallel) {
+        if (parallel == null) {
+            return new Perft(position.load()).count(depth);
+        }
+        return parallel.count(position.load(), depth);
+    }
+
+    private static boolean runChecks(int maxDepth, int threads, boolean split) {
+        ParallelPerft parallel = threads > 1 ? new ParallelPerft(threads, split) : null;
+        boolean allPassed = true;
+        long totalNodes = 0;
+        long totalNanos = 0;
+
+        System.out.printf("%-12s %5s %14s %14s %8s %12s%n", "position", "depth", "nodes", "expected", "result", "nodes/sec");
+        for (Position position : POSITIONS) {
+            int depths = Math.min(maxDepth, position.expected().length);
+            for (int depth = 1; depth <= depths; depth++) {
+                long start = System.nanoTime();
+                long nodes = run(position, depth, parallel);
+                long nanos = System.nanoTime() - start;
+                long expected = position.expected()[depth - 1];
+                boolean passed = nodes == expected;
+                allPassed &= passed;
+                totalNodes += nodes;
+                totalNanos += nanos;
+                System.out.printf("%-12s %5d %14d %14d %8s %12.0f%n", position.name(), depth, nodes, expected,
+                        passed ? "ok" : "FAIL", nodes * 1e9 / Math.max(nanos, 1));
+            }
+        }
+        System.out.printf("%ntotal %d nodes in %.3f s, %.0f nodes/sec on %d thread(s)%n", totalNodes,
+                totalNanos / 1e9, totalNodes * 1e9 / Math.max(totalNanos, 1), threads);
+        if (parallel != null) {
+            parallel.shutdown();
+        }
+        return allPassed;
+    }
+
+    private static void runDivide(Position position, int maxDepth, int threads, boolean split) {
+        int depth = Math.min(maxDepth, position.expected().length);
+        ParallelPerft parallel = new ParallelPerft(threads, split);
+        long total = 0;
+        for (var entry : parallel.divide(position.load(), depth).entrySet()) {
+            System.out.printf("%s: %d%n", entry.getKey(), entry.getValue());
+            total += entry.getValue();
+        }
+        System.out.printf("%nnodes at depth %d: %d%n", depth, total);
+        parallel.shutdown();
+    }
+
+    // times the largest reference count at 1, 2, 4, ... up to the given thread count
+    private static void runScaling(int maxDepth, int threads, boolean split) {
+        Position position = POSITIONS.get(0);
+        for (Position candidate : POSITIONS) {
+            if (candidate.expected()[candidate.expected().length - 1] > position.expected()[position.expected().length - 1]) {
+                position = candidate;
+            }
+        }
+        int depth = Math.min(maxDepth, position.expected().length);
+
+        System.out.printf("%s to depth %d%n%7s %10s %12s %8s%n", position.name(), depth, "threads", "seconds",
+                "nodes/sec", "speedup");
+        double baseline = 0;
+        for (int n = 1; n <= threads; n = n * 2 > threads && n != threads ? threads : n * 2) {
+            ParallelPerft parallel = new ParallelPerft(n, split);
+            long start = System.nanoTime();
+            long nodes = parallel.count(position.load(), depth);
+            double seconds = (System.nanoTime() - start) / 1e9;
+            parallel.shutdown();
+            if (n == 1) {
+                baseline = seconds;
+            }
+            System.out.printf("%7d %10.3f %12.0f %7.2fx%n", n, seconds, nodes / seconds, baseline / seconds);
+        }
+    }
+}
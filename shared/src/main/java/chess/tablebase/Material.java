@@ -0,0 +1,145 @@
+package chess.tablebase;
+
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.ChessPiece;
+
+/**
+ * The set of pieces on the board, packed into a long as a four-bit count per
+ * piece index (see {@link ChessBoard#pieceIndex}), white's pieces in the low
+ * 24 bits. Written as a signature such as {@code KQvK} or {@code KRvKB},
+ * white's pieces first.
+ */
+final class Material {
+    private static final String LETTERS = "KQBNRP";
+    private static final int[] VALUES = {0, 9, 3, 3, 5, 1};
+    private static final long WHITE_BITS = (1L << 24) - 1;
+    private static final ChessGame.TeamColor[] COLORS = ChessGame.TeamColor.values();
+    private static final ChessPiece.PieceType[] TYPES = ChessPiece.PieceType.values();
+
+    private Material() {
+    }
+
+    static long of(ChessBoard board) {
+        long key = 0;
+        for (int index = 0; index < 12; index++) {
+            key |= (long) Long.bitCount(board.pieces(COLORS[index / 6], TYPES[index % 6])) << (4 * index);
+        }
+        return key;
+    }
+
+    /**
+     * @throws IllegalArgumentException if the signature is malformed or a side has no king
+     */
+    static long parse(String signature) {
+        String[] sides = signature.toUpperCase().split("V");
+        if (sides.length != 2) {
+            throw new IllegalArgumentException("Error: expected a signature like KQvK, not " + signature);
+        }
+        long key = 0;
+        for (int side = 0; side < 2; side++) {
+            for (char letter : sides[side].toCharArray()) {
+                int type = LETTERS.indexOf(letter);
+                if (type < 0) {
+                    throw new IllegalArgumentException("Error: unknown piece " + letter + " in " + signature);
+                }
+                key += 1L << (4 * (side * 6 + type));
+            }
+        }
+        if (count(key, 0) != 1 || count(key, 6) != 1) {
+            throw new IllegalArgumentException("Error: each side needs one king in " + signature);
+        }
+        return key;
+    }
+
+    static int count(long key, int pieceIndex) {
+        return (int) (key >>> (4 * pieceIndex)) & 15;
+    }
+
+    static int pieceCount(long key) {
+        int count = 0;
+        for (int index = 0; index < 12; index++) {
+            count += count(key, index);
+        }
+        return count;
+    }
+
+    /**
+     * @return the same material with the colors swapped
+     */
+    static long flip(long key) {
+        return (key >>> 24) | ((key & WHITE_BITS) << 24);
+    }
+
+    /**
+     * @return the piece index of each piece in table order: white's pieces,
+     * then black's, each in piece index order
+     */
+    static int[] pieces(long key) {
+        int[] pieces = new int[pieceCount(key)];
+        int next = 0;
+        for (int index = 0; index < 12; index++) {
+            for (int i = 0; i < count(key, index); i++) {
+                pieces[next++] = index;
+            }
+        }
+        return pieces;
+    }
+
+    /**
+     * @return the orientation tables are built in, with the side that has
+     * more material as white
+     */
+    static long canonical(long key) {
+        long flipped = flip(key);
+        int white = value(key & WHITE_BITS);
+        int black = value(flipped & WHITE_BITS);
+        if (white != black) {
+            return white > black ? key : flipped;
+        }
+        return (key & WHITE_BITS) >= (flipped & WHITE_BITS) ? key : flipped;
+    }
+
+    private static int value(long whiteKey) {
+        int value = 0;
+        for (int type = 0; type < 6; type++) {
+            value += count(whiteKey, type) * VALUES[type];
+        }
+        return value;
+    }
+
+    /**
+     * @return True if neither side can ever mate: bare kings, or a lone
+     * bishop or knight against a bare king
+     */
+    static boolean isDeadDraw(long key) {
+        int count = pieceCount(key);
+        if (count == 2) {
+            return true;
+        }
+        if (count != 3) {
+            return false;
+        }
+        for (int color = 0; color < 2; color++) {
+            int base = color * 6;
+            if (count(key, base + ChessPiece.PieceType.BISHOP.ordinal()) == 1
+                    || count(key, base + ChessPiece.PieceType.KNIGHT.ordinal()) == 1) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    static String toString(long key) {
+        StringBuilder out = new StringBuilder();
+        for (int index = 0; index < 12; index++) {
+            if (index == 6) {
+                out.append('v');
+            }
+            for (int i = 0; i < count(key, index); i++) {
+                out.append(LETTERS.charAt(index % 6));
+            }
+        }
+        return out.toString();
+    }
+}
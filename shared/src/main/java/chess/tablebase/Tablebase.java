@@ -0,0 +1,124 @@
+package chess.tablebase;
+
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.ChessPiece;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * One material set's table: a byte per position giving the result with
+ * best play for the side to move.
+ * <p>
+ * A position's index packs the square of each piece, in {@link Material#pieces}
+ * order, six bits at a time, with the side to move above them. Every
+ * placement has its own index, so a probe is one array read with no search
+ * or collision check. The table includes placements that cannot occur,
+ * which are marked {@link #ILLEGAL}.
+ * <p>
+ * Values: {@link #DRAW}; 1 to 125, the side to move mates in that many plies;
+ * 128 plus n, the side to move is mated in n plies (128 is checkmate).
+ * <p>
+ * A file holds a 16-byte header of {@link #MAGIC}, {@link #VERSION} and the
+ * material key, then the values in index order.
+ */
+final class Tablebase {
+    static final int DRAW = 0;
+    static final int LOSS = 128;
+    static final int ILLEGAL = 255;
+    static final int MAX_PLIES = 125;
+
+    static final int MAGIC = 0x43544231; // "CTB1"
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 16;
+
+    private static final ChessGame.TeamColor[] COLORS = ChessGame.TeamColor.values();
+    private static final ChessPiece.PieceType[] TYPES = ChessPiece.PieceType.values();
+
+    private final long material;
+    private final int[] pieces;
+    private final ByteBuffer values;
+
+    Tablebase(long material, ByteBuffer values) {
+        this.material = material;
+        this.pieces = Material.pieces(material);
+        this.values = values;
+    }
+
+    static int size(long material) {
+        return 2 << (6 * Material.pieceCount(material));
+    }
+
+    static Tablebase open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, Math.min(channel.size(), HEADER_BYTES))
+                    .order(ByteOrder.BIG_ENDIAN);
+            if (header.limit() < HEADER_BYTES || header.getInt(0) != MAGIC || header.getInt(4) != VERSION) {
+                throw new IOException("Error: " + path + " is not a tablebase");
+            }
+            long material = header.getLong(8);
+            if (channel.size() != HEADER_BYTES + (long) size(material)) {
+                throw new IOException("Error: " + path + " is truncated");
+            }
+            ByteBuffer values = channel.map(FileChannel.MapMode.READ_ONLY, HEADER_BYTES, size(material));
+            return new Tablebase(material, values);
+        }
+    }
+
+    void write(Path path) throws IOException {
+        try (OutputStream out = Files.newOutputStream(path)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.BIG_ENDIAN);
+            header.putInt(MAGIC).putInt(VERSION).putLong(material);
+            out.write(header.array());
+            byte[] chunk = new byte[1 << 16];
+            for (int start = 0; start < values.capacity(); start += chunk.length) {
+                int length = Math.min(chunk.length, values.capacity() - start);
+                values.get(start, chunk, 0, length);
+                out.write(chunk, 0, length);
+            }
+        }
+    }
+
+    long material() {
+        return material;
+    }
+
+    int[] pieces() {
+        return pieces;
+    }
+
+    int value(int index) {
+        return values.get(index) & 0xFF;
+    }
+
+    /**
+     * @return the index of a position with this table's material, read with
+     * colors swapped and the board mirrored top to bottom if flipped
+     */
+    int index(ChessBoard board, ChessGame.TeamColor turn, boolean flipped) {
+        int index = 0;
+        int shift = 0;
+        int previous = -1;
+        long bits = 0;
+        for (int piece : pieces) {
+            if (piece != previous) {
+                int actual = flipped ? (piece + 6) % 12 : piece;
+                bits = board.pieces(COLORS[actual / 6], TYPES[actual % 6]);
+                previous = piece;
+            }
+            int square = Long.numberOfTrailingZeros(bits);
+            bits &= bits - 1;
+            index |= (flipped ? square ^ 56 : square) << shift;
+            shift += 6;
+        }
+        boolean black = (turn == ChessGame.TeamColor.BLACK) != flipped;
+        return black ? index | (1 << shift) : index;
+    }
+}
@@ -0,0 +1,426 @@
+package chess.tablebase;
+
+import chess.Attacks;
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.ChessPiece;
+import chess.ChessPosition;
+import chess.Move;
+import chess.MoveGenerator;
+import chess.MoveList;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Builds tablebases by retrograde analysis, working back from the mates.
+ * <p>
+ * One forward pass over every position finds the mates and stalemates and
+ * counts each position's moves. Moves that capture or promote leave the
+ * table; their results come from the smaller tables, which are generated
+ * first when missing. Settled positions are then taken in order of distance
+ * to mate, and the moves into each are taken back to reach its predecessors
+ * without generating their moves: a predecessor of a lost position is won
+ * one ply later, and one whose moves have all been found to lose to a win
+ * is lost one ply after the longest of them. Positions never settled are
+ * draws.
+ * <p>
+ * Run with {@code mvn -pl shared exec:java -Dexec.mainClass=chess.tablebase.TablebaseGenerator
+ * -Dexec.args="KQvK KRvK KPvK --dir=tablebases"}. Tables of up to
+ * {@value Tablebases#MAX_PIECES} pieces are supported; a four-piece table
+ * takes 32 MB.
+ */
+public class TablebaseGenerator {
+    private static final ChessPiece.PieceType[] TYPES = ChessPiece.PieceType.values();
+
+    private final Tablebases tablebases;
+
+    public TablebaseGenerator(Tablebases tablebases) {
+        this.tablebases = tablebases;
+    }
+
+    /**
+     * Generates the table for a material signature such as {@code KQvK},
+     * and any smaller tables it needs, writing each to the tablebase
+     * directory. Tables that already exist there are reused.
+     */
+    public void generate(String signature) throws IOException {
+        long material = Material.parse(signature);
+        if (Material.pieceCount(material) > Tablebases.MAX_PIECES) {
+            throw new IllegalArgumentException("Error: tables have at most " + Tablebases.MAX_PIECES + " pieces");
+        }
+        generate(material);
+    }
+
+    private void generate(long material) throws IOException {
+        if (Material.isDeadDraw(material)
+                || tablebases.table(material) != null || tablebases.table(Material.flip(material)) != null) {
+            return;
+        }
+        for (long child : children(material)) {
+            generate(Material.canonical(child));
+        }
+
+        Files.createDirectories(tablebases.directory());
+        Tablebase table = new Builder(material).build();
+        table.write(tablebases.directory().resolve(Material.toString(material) + Tablebases.EXTENSION));
+        tablebases.add(table);
+    }
+
+    // the materials a capture or promotion can lead to
+    private static List<Long> children(long material) {
+        List<Long> children = new ArrayList<>();
+        for (int index = 0; index < 12; index++) {
+            if (Material.count(material, index) == 0) {
+                continue;
+            }
+            int type = index % 6;
+            if (type != ChessPiece.PieceType.KING.ordinal()) {
+                children.add(material - (1L << (4 * index)));
+            }
+            if (type == ChessPiece.PieceType.PAWN.ordinal()) {
+                int base = index - type;
+                for (ChessPiece.PieceType promotion : new ChessPiece.PieceType[]{ChessPiece.PieceType.QUEEN,
+                        ChessPiece.PieceType.ROOK, ChessPiece.PieceType.BISHOP, ChessPiece.PieceType.KNIGHT}) {
+                    long promoted = material - (1L << (4 * index)) + (1L << (4 * (base + promotion.ordinal())));
+                    children.add(promoted);
+                    // a promotion that captures
+                    for (int captured = 6 - base + 1; captured < 12 - base; captured++) {
+                        if (Material.count(promoted, captured) > 0) {
+                            children.add(promoted - (1L << (4 * captured)));
+                        }
+                    }
+                }
+            }
+        }
+        return children;
+    }
+
+    public static void main(String[] args) throws IOException {
+        Path directory = Path.of("tablebases");
+        List<String> signatures = new ArrayList<>();
+        for (String arg : args) {
+            if (arg.startsWith("--dir=")) {
+                directory = Path.of(arg.substring("--dir=".length()));
+            } else {
+                signatures.add(arg);
+            }
+        }
+        if (signatures.isEmpty()) {
+            System.out.println("Usage: TablebaseGenerator KQvK [KRvK ...] [--dir=tablebases]");
+            return;
+        }
+        TablebaseGenerator generator = new TablebaseGenerator(Tablebases.open(directory));
+        for (String signature : signatures) {
+            long start = System.nanoTime();
+            generator.generate(signature);
+            // includes any smaller tables it needed
+            System.out.printf("%s: %d ms%n", signature, (System.nanoTime() - start) / 1_000_000);
+        }
+    }
+
+    /**
+     * The working state for generating one table
+     */
+    private final class Builder {
+        // marks a bucket entry as a loss rather than a win
+        private static final int LOSS_FLAG = 1 << 30;
+
+        private final long material;
+        private final int[] pieces;
+        private final int size;
+        private final byte[] values;
+        private final BitSet settled;
+        // legal moves from each position that stay in the table and are not yet known to lose
+        private final byte[] remaining;
+        private final IntList[] buckets = new IntList[Tablebase.MAX_PLIES + 2];
+        private final ChessGame game = new ChessGame();
+        private final ChessBoard board = new ChessBoard();
+        private final MoveList moves = new MoveList();
+        private final int[] squares;
+        private final int[] placement;
+        private final int[] unmoved;
+        private final Tablebase table;
+
+        Builder(long material) {
+            this.material = material;
+            this.pieces = Material.pieces(material);
+            this.size = Tablebase.size(material);
+            this.values = new byte[size];
+            this.settled = new BitSet(size);
+            this.remaining = new byte[size];
+            this.squares = new int[pieces.length];
+            this.placement = new int[pieces.length];
+            this.unmoved = new int[pieces.length];
+            this.table = new Tablebase(material, ByteBuffer.wrap(values));
+            for (int ply = 0; ply < buckets.length; ply++) {
+                buckets[ply] = new IntList();
+            }
+            game.setBoard(board);
+        }
+
+        Tablebase build() {
+            for (int index = 0; index < size; index++) {
+                classify(index);
+            }
+            for (int ply = 0; ply <= Tablebase.MAX_PLIES; ply++) {
+                IntList bucket = buckets[ply];
+                for (int i = 0; i < bucket.size(); i++) {
+                    int entry = bucket.get(i);
+                    int index = entry & ~LOSS_FLAG;
+                    if (settled.get(index)) {
+                        continue;
+                    }
+                    boolean lost = (entry & LOSS_FLAG) != 0;
+                    values[index] = (byte) (lost ? Tablebase.LOSS + ply : ply);
+                    settled.set(index);
+                    retract(index, ply, lost);
+                }
+                buckets[ply] = null;
+            }
+            if (!buckets[Tablebase.MAX_PLIES + 1].isEmpty()) {
+                throw new IllegalStateException("Error: mates are longer than " + Tablebase.MAX_PLIES + " plies");
+            }
+            // whatever was never settled is a draw, which is already zero
+            return table;
+        }
+
+        /*
+         * Marks placements that cannot occur, settles mates and stalemates,
+         * counts the moves that stay in the table and schedules the results
+         * that captures and promotions into smaller tables already decide.
+         */
+        private void classify(int index) {
+            if (!setUp(index)) {
+                values[index] = (byte) Tablebase.ILLEGAL;
+                settled.set(index);
+                return;
+            }
+            generateMoves();
+            if (moves.isEmpty()) {
+                if (game.isInCheck(game.getTeamTurn())) {
+                    buckets[0].add(index | LOSS_FLAG);
+                } else {
+                    settled.set(index);
+                }
+                return;
+            }
+            int inTable = 0;
+            for (int i = 0; i < moves.size(); i++) {
+                if (!leavesTable(moves.get(i))) {
+                    inTable++;
+                }
+            }
+            remaining[index] = (byte) inTable;
+            scheduleExits(index, inTable == 0 ? 0 : -1, true);
+        }
+
+        /*
+         * Schedules what the moves out of the table decide for the position
+         * currently set up: a win through the quickest lost child, if wins is
+         * set, or, once no move stays in the table, a loss after the longest
+         * won child. lastInTable is the ply of the last in-table child to be
+         * settled, or -1 while some are still open.
+         */
+        private void scheduleExits(int index, int lastInTable, boolean wins) {
+            int quickestLoss = Integer.MAX_VALUE;
+            int longestWin = lastInTable;
+            boolean drawn = false;
+            for (int i = 0; i < moves.size(); i++) {
+                int move = moves.get(i);
+                if (!leavesTable(move)) {
+                    continue;
+                }
+                int child = childValue(move);
+                if (child == Tablebase.DRAW) {
+                    drawn = true;
+                } else if (child >= Tablebase.LOSS) {
+                    quickestLoss = Math.min(quickestLoss, child - Tablebase.LOSS);
+                } else {
+                    longestWin = Math.max(longestWin, child);
+                }
+            }
+            if (quickestLoss != Integer.MAX_VALUE) {
+                if (wins) {
+                    schedule(index, quickestLoss + 1, false);
+                }
+            } else if (!drawn && lastInTable >= 0) {
+                schedule(index, longestWin + 1, true);
+            }
+        }
+
+        private void schedule(int index, int ply, boolean lost) {
+            buckets[Math.min(ply, Tablebase.MAX_PLIES + 1)].add(lost ? index | LOSS_FLAG : index);
+        }
+
+        // tells every position one move before a newly settled one about it
+        private void retract(int index, int ply, boolean lost) {
+            decode(index, placement);
+            int side = index >>> (6 * pieces.length);
+            // the side that just moved, and so can take its move back
+            int mover = 1 - side;
+            long occupied = 0;
+            for (int square : placement) {
+                occupied |= 1L << square;
+            }
+            for (int slot = 0; slot < pieces.length; slot++) {
+                if (pieces[slot] / 6 != mover) {
+                    continue;
+                }
+                long from = unmoves(pieces[slot], placement[slot], occupied);
+                while (from != 0) {
+                    System.arraycopy(placement, 0, unmoved, 0, placement.length);
+                    unmoved[slot] = Long.numberOfTrailingZeros(from);
+                    from &= from - 1;
+                    int previous = index(unmoved, mover);
+                    if (settled.get(previous)) {
+                        continue;
+                    }
+                    if (lost) {
+                        schedule(previous, ply + 1, false);
+                    } else if (--remaining[previous] == 0) {
+                        setUp(previous);
+                        generateMoves();
+                        // a win through a move out of the table was scheduled when classified
+                        scheduleExits(previous, ply, false);
+                    }
+                }
+            }
+        }
+
+        // the squares a piece now on square could have moved from without capturing
+        private long unmoves(int piece, int square, long occupied) {
+            long empty = ~occupied;
+            return switch (TYPES[piece % 6]) {
+                case KING -> Attacks.king(square) & empty;
+                case KNIGHT -> Attacks.knight(square) & empty;
+                case BISHOP -> Attacks.bishop(square, occupied) & empty;
+                case ROOK -> Attacks.rook(square, occupied) & empty;
+                case QUEEN -> Attacks.queen(square, occupied) & empty;
+                case PAWN -> pawnUnmoves(piece / 6, square, occupied);
+            };
+        }
+
+        private long pawnUnmoves(int color, int square, long occupied) {
+            int rank = square >>> 3;
+            int step = color == 0 ? -8 : 8;
+            int startRank = color == 0 ? 1 : 6;
+            int doubleRank = color == 0 ? 3 : 4;
+            int single = square + step;
+            if (single < 0 || single > 63 || (occupied & (1L << single)) != 0 || (single >>> 3) == (color == 0 ? 0 : 7)) {
+                return 0;
+            }
+            long from = 1L << single;
+            int twice = single + step;
+            if (rank == doubleRank && (occupied & (1L << twice)) == 0 && (twice >>> 3) == startRank) {
+                from |= 1L << twice;
+            }
+            return from;
+        }
+
+        private void decode(int index, int[] target) {
+            for (int i = 0; i < pieces.length; i++) {
+                target[i] = (index >>> (6 * i)) & 63;
+            }
+        }
+
+        // the index of a placement, with identical pieces put in square order as probes expect
+        private int index(int[] placement, int side) {
+            for (int i = 1; i < placement.length; i++) {
+                if (pieces[i] == pieces[i - 1] && placement[i] < placement[i - 1]) {
+                    int square = placement[i];
+                    placement[i] = placement[i - 1];
+                    placement[i - 1] = square;
+                    i = 0;
+                }
+            }
+            int index = side << (6 * pieces.length);
+            for (int i = 0; i < placement.length; i++) {
+                index |= placement[i] << (6 * i);
+            }
+            return index;
+        }
+
+        private int childValue(int move) {
+            game.doMove(move);
+            int value = tablebases.value(board, game.getTeamTurn());
+            game.undoMove();
+            if (value < 0) {
+                throw new IllegalStateException("Error: missing the table after " + Move.toString(move));
+            }
+            return value;
+        }
+
+        private boolean leavesTable(int move) {
+            return Move.isCapture(move) || Move.isPromotion(move);
+        }
+
+        private void generateMoves() {
+            moves.clear();
+            MoveGenerator.legalMoves(board, game.getTeamTurn(), moves);
+        }
+
+        /*
+         * Places the pieces for an index. False if the placement cannot occur,
+         * or if it lists identical pieces out of square order, which probes
+         * never ask for.
+         */
+        private boolean setUp(int index) {
+            for (int square : squares) {
+                board.addPiece(ChessPosition.of(square), null);
+            }
+            decode(index, squares);
+            long used = 0;
+            boolean legal = true;
+            for (int i = 0; i < pieces.length; i++) {
+                int square = squares[i];
+                long bit = 1L << square;
+                int rank = square >>> 3;
+                if ((used & bit) != 0 || pieces[i] % 6 == ChessPiece.PieceType.PAWN.ordinal() && (rank == 0 || rank == 7)
+                        || i > 0 && pieces[i] == pieces[i - 1] && square < squares[i - 1]) {
+                    legal = false;
+                    continue;
+                }
+                used |= bit;
+                board.addPiece(ChessPosition.of(square), ChessPiece.of(pieces[i]));
+            }
+            ChessGame.TeamColor turn = (index >>> (6 * pieces.length)) == 0
+                    ? ChessGame.TeamColor.WHITE : ChessGame.TeamColor.BLACK;
+            game.setTeamTurn(turn);
+            // the side that just moved cannot have left its king in check
+            ChessGame.TeamColor other = turn == ChessGame.TeamColor.WHITE ? ChessGame.TeamColor.BLACK : ChessGame.TeamColor.WHITE;
+            return legal && !game.isInCheck(other);
+        }
+    }
+
+    // a growable list of ints, for the positions waiting in each ply's bucket
+    private static final class IntList {
+        private int[] items = new int[16];
+        private int size;
+
+        void add(int item) {
+            if (size == items.length) {
+                items = Arrays.copyOf(items, size * 2);
+            }
+            items[size++] = item;
+        }
+
+        int get(int index) {
+            return items[index];
+        }
+
+        int size() {
+            return size;
+        }
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package chess.tablebase;
+
+/**
+ * What a tablebase knows about a position, from the side to move's point of view
+ *
+ * @param plies the number of plies until mate with best play by both sides,
+ *              or 0 for a draw or a side already checkmated
+ */
+public record TablebaseResult(Outcome outcome, int plies) {
+    public enum Outcome {
+        WIN,
+        DRAW,
+        LOSS
+    }
+
+    static TablebaseResult of(int value) {
+        if (value == Tablebase.DRAW) {
+            return new TablebaseResult(Outcome.DRAW, 0);
+        }
+        if (value >= Tablebase.LOSS) {
+            return new TablebaseResult(Outcome.LOSS, value - Tablebase.LOSS);
+        }
+        return new TablebaseResult(Outcome.WIN, value);
+    }
+
+    /**
+     * @return the number of moves until mate, counting the winner's moves, or 0 for a draw
+     */
+    public int movesToMate() {
+        return (plies + 1) / 2;
+    }
+}
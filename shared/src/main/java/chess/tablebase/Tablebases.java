@@ -0,0 +1,116 @@
+package chess.tablebase;
+
+import chess.ChessBoard;
+import chess.ChessGame;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Perfect-play results for positions with few pieces, read from the tables
+ * {@link TablebaseGenerator} writes to a directory.
+ * <p>
+ * Tables are memory-mapped the first time a position with their material is
+ * probed. A table serves both colorings of its material, so {@code KQvK.tb}
+ * also answers for a black queen. Bare kings and a lone minor piece are
+ * known draws and need no table. The tables hold no castling or en passant,
+ * so positions where either is still possible are not answered.
+ * <p>
+ * A Tablebases is safe to share between threads and searches.
+ */
+public class Tablebases {
+    public static final int MAX_PIECES = 4;
+    public static final String EXTENSION = ".tb";
+    /**
+     * The longest mate, in plies, a table can hold
+     */
+    public static final int MAX_PLIES = Tablebase.MAX_PLIES;
+
+    private final Path directory;
+    private final Map<Long, Optional<Tablebase>> tables = new ConcurrentHashMap<>();
+
+    private Tablebases(Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * @param directory where the table files are; it need not exist, in which
+     *                  case only the known draws are recognised
+     */
+    public static Tablebases open(Path directory) {
+        return new Tablebases(directory);
+    }
+
+    /**
+     * @return the result with best play for the side to move, or null if the
+     * position has too many pieces, castling rights or an en passant capture,
+     * or its table is not available
+     * @throws UncheckedIOException if its table file is corrupt or truncated
+     */
+    public TablebaseResult probe(ChessGame game) {
+        if (game.getCastlingRights() != 0 || game.getEnPassantTarget() != null) {
+            return null;
+        }
+        int value = value(game.getBoard(), game.getTeamTurn());
+        return value < 0 ? null : TablebaseResult.of(value);
+    }
+
+    /**
+     * @return the encoded result (see {@link Tablebase}), or -1 if unknown or
+     * the side not to move is in check
+     */
+    int value(ChessBoard board, ChessGame.TeamColor turn) {
+        if (Long.bitCount(board.occupied()) > MAX_PIECES) {
+            return -1;
+        }
+        long material = Material.of(board);
+        if (Material.count(material, 0) != 1 || Material.count(material, 6) != 1) {
+            return -1;
+        }
+        if (Material.isDeadDraw(material)) {
+            return Tablebase.DRAW;
+        }
+        int value = -1;
+        Tablebase table = table(material);
+        if (table != null) {
+            value = table.value(table.index(board, turn, false));
+        } else if ((table = table(Material.flip(material))) != null) {
+            value = table.value(table.index(board, turn, true));
+        }
+        return value == Tablebase.ILLEGAL ? -1 : value;
+    }
+
+    /**
+     * @return the table for exactly this material, or null if there is no file for it
+     * @throws UncheckedIOException if the file is there but cannot be read as a table
+     */
+    Tablebase table(long material) {
+        return tables.computeIfAbsent(material, key -> {
+            Path path = directory.resolve(Material.toString(key) + EXTENSION);
+            if (!Files.isRegularFile(path)) {
+                return Optional.empty();
+            }
+            try {
+                return Optional.of(Tablebase.open(path));
+            } catch (IOException e) {
+                throw new UncheckedIOException("Error: could not load tablebase " + path, e);
+            }
+        }).orElse(null);
+    }
+
+    /**
+     * Makes a table available without reading it from disk, e.g. one just generated
+     */
+    void add(Tablebase table) {
+        tables.put(table.material(), Optional.of(table));
+    }
+
+    Path directory() {
+        return directory;
+    }
+}
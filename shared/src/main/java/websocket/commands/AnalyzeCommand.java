@@ -0,0 +1,37 @@
+package websocket.commands;
+
+/**
+ * Asks the server to analyse a position, given either as a FEN string or,
+ * when fen is null, as the current position of the game with gameID.
+ * Results arrive as one ANALYSIS message per finished search depth.
+ */
+public class AnalyzeCommand extends UserGameCommand {
+    private final String fen;
+    private final Integer depth;
+    private final Integer lines;
+
+    public AnalyzeCommand(String authToken, Integer gameID, String fen, Integer depth, Integer lines) {
+        super(CommandType.ANALYZE, authToken, gameID);
+        this.fen = fen;
+        this.depth = depth;
+        this.lines = lines;
+    }
+
+    public String getFen() {
+        return fen;
+    }
+
+    /**
+     * @return the deepest search wanted, or null for the server's limit
+     */
+    public Integer getDepth() {
+        return depth;
+    }
+
+    /**
+     * @return how many candidate moves to report, or null for one
+     */
+    public Integer getLines() {
+        return lines;
+    }
+}
@@ -0,0 +1,70 @@
+package websocket.messages;
+
+import chess.engine.SearchResult;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The result of one finished depth of an analysis. The last message of an
+ * analysis has {@code done} set.
+ */
+public class AnalysisMessage extends ServerMessage {
+    private final String fen;
+    private final int depth;
+    private final long nodes;
+    private final long millis;
+    private final boolean done;
+    private final List<Line> lines;
+
+    /**
+     * One candidate move and the line of play expected after it
+     *
+     * @param score  centipawns from the side to move's point of view
+     * @param mateIn moves until mate, negative when being mated, or 0 if no mate was found
+     * @param pv     moves like {@code e2e4 e7e5}, starting with move
+     */
+    public record Line(String move, int score, int mateIn, String pv) {
+    }
+
+    public AnalysisMessage(String fen, List<SearchResult> results, boolean done) {
+        super(ServerMessageType.ANALYSIS);
+        // the lines are found in turn, so the last one has the depth's full counts
+        SearchResult last = results.get(results.size() - 1);
+        this.fen = fen;
+        this.depth = last.depth();
+        this.nodes = last.nodes();
+        this.millis = last.nanos() / 1_000_000;
+        this.done = done;
+        this.lines = new ArrayList<>(results.size());
+        for (SearchResult result : results) {
+            String pv = result.pvString();
+            String move = pv.isEmpty() ? null : pv.split(" ", 2)[0];
+            lines.add(new Line(move, result.score(), result.mateIn(), pv));
+        }
+    }
+
+    public String getFen() {
+        return fen;
+    }
+
+    public int getDepth() {
+        return depth;
+    }
+
+    public long getNodes() {
+        return nodes;
+    }
+
+    public long getMillis() {
+        return millis;
+    }
+
+    public boolean isDone() {
+        return done;
+    }
+
+    public List<Line> getLines() {
+        return lines;
+    }
+}
@@ -0,0 +1,121 @@
+package chess;
+
+import com.google.gson.Gson;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DrawRuleTests {
+
+    private static void play(ChessGame game, int startRow, int startCol, int endRow, int endCol)
+            throws InvalidMoveException {
+        game.makeMove(new ChessMove(new ChessPosition(startRow, startCol), new ChessPosition(endRow, endCol), null));
+    }
+
+    // both knights out and back, returning to the starting position
+    private static void shuffleKnights(ChessGame game) throws InvalidMoveException {
+        play(game, 1, 7, 3, 6);
+        play(game, 8, 7, 6, 6);
+        play(game, 3, 6, 1, 7);
+        play(game, 6, 6, 8, 7);
+    }
+
+    @Test
+    @DisplayName("Draw Rules - Threefold Repetition")
+    public void testThreefoldRepetition() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        assertEquals(1, game.repetitions());
+
+        shuffleKnights(game);
+        assertEquals(2, game.repetitions());
+        assertFalse(game.isThreefoldRepetition());
+
+        shuffleKnights(game);
+        assertTrue(game.isThreefoldRepetition());
+        assertEquals(ChessGame.GameStatus.THREEFOLD_REPETITION, game.status(ChessGame.TeamColor.WHITE));
+    }
+
+    @Test
+    @DisplayName("Draw Rules - Pawn Move Resets History")
+    public void testPawnMoveResets() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        shuffleKnights(game);
+        play(game, 2, 5, 4, 5);
+        assertEquals(0, game.getHalfmoveClock());
+        play(game, 7, 5, 5, 5);
+        shuffleKnights(game);
+
+        assertEquals(4, game.getHalfmoveClock());
+        assertEquals(2, game.repetitions());
+        assertEquals(6, game.getFullmoveNumber());
+    }
+
+    @Test
+    @DisplayName("Draw Rules - Fifty Moves")
+    public void testFiftyMoves() throws InvalidMoveException {
+        ChessGame game = ChessGame.fromFen("4k3/8/8/8/8/8/4P3/R3K3 w - - 99 80");
+        assertFalse(game.isFiftyMoveDraw());
+
+        play(game, 1, 1, 1, 2);
+        assertTrue(game.isFiftyMoveDraw());
+        assertEquals(ChessGame.GameStatus.FIFTY_MOVE_RULE, game.status(ChessGame.TeamColor.BLACK));
+        assertEquals("4k3/8/8/8/8/8/4P3/1R2K3 b - - 100 80", game.toFen());
+
+        game.undoMove();
+        assertEquals(99, game.getHalfmoveClock());
+        play(game, 2, 5, 3, 5);
+        assertEquals(0, game.getHalfmoveClock());
+    }
+
+    @Test
+    @DisplayName("Draw Rules - New Board Starts Over")
+    public void testSetBoard() throws InvalidMoveException {
+        ChessGame repeated = new ChessGame();
+        shuffleKnights(repeated);
+        shuffleKnights(repeated);
+        ChessBoard board = new ChessBoard();
+        board.resetBoard();
+        repeated.setBoard(board);
+        assertEquals(1, repeated.repetitions());
+        assertEquals(ChessGame.GameStatus.NORMAL, repeated.status(ChessGame.TeamColor.WHITE));
+
+        ChessGame stale = ChessGame.fromFen("4k3/8/8/8/8/8/4P3/R3K3 w - - 100 80");
+        stale.setBoard(ChessGame.fromFen("4k3/8/8/8/8/8/4P3/R3K3 w - -").getBoard());
+        assertEquals(ChessGame.GameStatus.NORMAL, stale.status(ChessGame.TeamColor.WHITE));
+        assertEquals("4k3/8/8/8/8/8/4P3/R3K3 w Q - 0 1", stale.toFen());
+    }
+
+    @Test
+    @DisplayName("Draw Rules - History Survives Serialization")
+    public void testHistorySerialized() throws InvalidMoveException {
+        Gson gson = new Gson();
+        ChessGame game = new ChessGame();
+        shuffleKnights(game);
+        shuffleKnights(game);
+        play(game, 1, 7, 3, 6);
+
+        ChessGame restored = gson.fromJson(gson.toJson(game), ChessGame.class);
+        assertEquals(game, restored);
+        assertEquals(game.getHalfmoveClock(), restored.getHalfmoveClock());
+        assertEquals(game.getFullmoveNumber(), restored.getFullmoveNumber());
+
+        play(restored, 8, 7, 6, 6);
+        play(restored, 3, 6, 1, 7);
+        play(restored, 6, 6, 8, 7);
+        assertEquals(ChessGame.GameStatus.THREEFOLD_REPETITION, restored.status(ChessGame.TeamColor.WHITE));
+    }
+
+    @Test
+    @DisplayName("Draw Rules - Games Saved Without History")
+    public void testOldFormat() {
+        ChessGame current = new ChessGame();
+        String json = new Gson().toJson(current);
+        String old = json.substring(0, json.indexOf(",\"halfmoveClock\"")) + "}";
+
+        ChessGame restored = new Gson().fromJson(old, ChessGame.class);
+        assertEquals(current, restored);
+        assertEquals(0, restored.getHalfmoveClock());
+        assertEquals(1, restored.repetitions());
+    }
+}
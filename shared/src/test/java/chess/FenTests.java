@@ -0,0 +1,68 @@
+package chess;
+
+import chess.perft.Perft;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FenTests {
+    private static final String START = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1";
+
+    @Test
+    @DisplayName("FEN - Starting Position")
+    public void testStartingPosition() {
+        assertEquals(new ChessGame(), ChessGame.fromFen(START));
+        assertEquals(START, new ChessGame().toFen());
+    }
+
+    @Test
+    @DisplayName("FEN - Round Trip")
+    public void testRoundTrip() {
+        for (Perft.Position position : Perft.POSITIONS) {
+            ChessGame game = position.load();
+            assertEquals(game, ChessGame.fromFen(game.toFen()), position.name());
+            assertEquals(game.getBoard(), ChessBoard.fromFen(game.getBoard().toFen()), position.name());
+        }
+    }
+
+    @Test
+    @DisplayName("FEN - Side To Move")
+    public void testSideToMove() {
+        ChessGame game = ChessGame.fromFen("4k3/8/8/8/8/8/4P3/4K3 b");
+        assertEquals(ChessGame.TeamColor.BLACK, game.getTeamTurn());
+        assertEquals(ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN),
+                game.getBoard().getPiece(new ChessPosition(2, 5)));
+        assertEquals("4k3/8/8/8/8/8/4P3/4K3 b - - 0 1", game.toFen());
+    }
+
+    @Test
+    @DisplayName("FEN - Malformed Input")
+    public void testMalformed() {
+        assertThrows(IllegalArgumentException.class, () -> ChessGame.fromFen("8/8/8/8/8/8/8 w"));
+        assertThrows(IllegalArgumentException.class, () -> ChessGame.fromFen("9/8/8/8/8/8/8/8 w"));
+        assertThrows(IllegalArgumentException.class, () -> ChessGame.fromFen("8/8/8/8/8/8/8/7x w"));
+        assertThrows(IllegalArgumentException.class, () -> ChessGame.fromFen("8/8/8/8/8/8/8/8 x"));
+        assertThrows(IllegalArgumentException.class, () -> ChessGame.fromFen("8/8/8/8/8/8/8/8 w KX - 0 1"));
+        assertThrows(IllegalArgumentException.class, () -> ChessGame.fromFen("8/8/8/8/8/8/8/8 w - e4 0 1"));
+        assertThrows(IllegalArgumentException.class, () -> ChessGame.fromFen("8/8/8/8/8/8/8/8"));
+    }
+
+    @Test
+    @DisplayName("FEN - Castling And En Passant")
+    public void testCastlingAndEnPassant() {
+        ChessGame game = ChessGame.fromFen("r3k2r/8/8/8/8/8/8/R3K2R w Kq - 0 1");
+        assertEquals(ChessGame.CASTLE_WHITE_KINGSIDE | ChessGame.CASTLE_BLACK_QUEENSIDE, game.getCastlingRights());
+        assertEquals("r3k2r/8/8/8/8/8/8/R3K2R w Kq - 0 1", game.toFen());
+
+        // rights without their king and rook are dropped, as is a missing field's default
+        assertEquals(0, ChessGame.fromFen("4k3/8/8/8/8/8/8/4K3 w KQkq - 0 1").getCastlingRights());
+        assertEquals(ChessGame.ALL_CASTLING, ChessGame.fromFen("r3k2r/8/8/8/8/8/8/R3K2R w").getCastlingRights());
+
+        ChessGame passant = ChessGame.fromFen("4k3/8/8/3pP3/8/8/8/4K3 w - d6 0 2");
+        assertEquals(new ChessPosition(6, 4), passant.getEnPassantTarget());
+        assertEquals("4k3/8/8/3pP3/8/8/8/4K3 w - d6 0 2", passant.toFen());
+        // no pawn can take on d6, so the square is not kept
+        assertNull(ChessGame.fromFen("4k3/8/8/3p4/8/8/8/4K3 w - d6 0 2").getEnPassantTarget());
+    }
+}
@@ -0,0 +1,106 @@
+package chess;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GameStateTests {
+
+    private static void play(ChessGame game, String move) throws InvalidMoveException {
+        ChessPosition start = new ChessPosition(move.charAt(1) - '0', move.charAt(0) - 'a' + 1);
+        ChessPosition end = new ChessPosition(move.charAt(3) - '0', move.charAt(2) - 'a' + 1);
+        game.makeMove(new ChessMove(start, end, null));
+    }
+
+    @Test
+    @DisplayName("Game State - Castling Moves The Rook")
+    public void testCastling() throws InvalidMoveException {
+        ChessGame game = ChessGame.fromFen("r3k2r/8/8/8/8/8/8/R3K2R w KQkq - 0 1");
+        play(game, "e1g1");
+        assertEquals("r3k2r/8/8/8/8/8/8/R4RK1 b kq - 1 1", game.toFen());
+        assertEquals(ChessGame.fromFen(game.toFen()).zobristKey(), game.zobristKey());
+
+        play(game, "e8c8");
+        assertEquals("2kr3r/8/8/8/8/8/8/R4RK1 w - - 2 2", game.toFen());
+        assertEquals(ChessGame.fromFen(game.toFen()).zobristKey(), game.zobristKey());
+
+        game.undoMove();
+        game.undoMove();
+        assertEquals("r3k2r/8/8/8/8/8/8/R3K2R w KQkq - 0 1", game.toFen());
+        assertEquals(ChessGame.fromFen(game.toFen()).zobristKey(), game.zobristKey());
+    }
+
+    @Test
+    @DisplayName("Game State - Rights Lost")
+    public void testRightsLost() throws InvalidMoveException {
+        ChessGame game = ChessGame.fromFen("r3k2r/8/8/8/8/8/8/R3K2R w KQkq - 0 1");
+        // taking a rook on its square costs its owner that side's castling
+        play(game, "h1h8");
+        assertEquals(ChessGame.CASTLE_WHITE_QUEENSIDE | ChessGame.CASTLE_BLACK_QUEENSIDE, game.getCastlingRights());
+        assertFalse(game.isLegal(new ChessMove(new ChessPosition(8, 5), new ChessPosition(8, 7), null)));
+
+        // same placement, different rights, different position
+        ChessGame without = ChessGame.fromFen("r3k2r/8/8/8/8/8/8/R3K2R w - - 0 1");
+        assertNotEquals(ChessGame.fromFen("r3k2r/8/8/8/8/8/8/R3K2R w KQkq - 0 1"), without);
+        assertEquals(ChessGame.fromFen("r3k2r/8/8/8/8/8/8/R3K2R w KQkq - 0 1").getBoard(), without.getBoard());
+    }
+
+    @Test
+    @DisplayName("Game State - En Passant Expires")
+    public void testEnPassant() throws InvalidMoveException {
+        ChessGame game = ChessGame.fromFen("4k3/8/8/8/5p2/8/4P3/4K3 w - - 0 1");
+        long before = game.zobristKey();
+        play(game, "e2e4");
+        assertEquals(new ChessPosition(3, 5), game.getEnPassantTarget());
+        assertEquals(ChessGame.fromFen("4k3/8/8/8/4Pp2/8/8/4K3 b - e3 0 1").zobristKey(), game.zobristKey());
+        assertNotEquals(ChessGame.fromFen("4k3/8/8/8/4Pp2/8/8/4K3 b - - 0 1").zobristKey(), game.zobristKey());
+
+        play(game, "e8d8");
+        assertNull(game.getEnPassantTarget());
+        game.undoMove();
+        game.undoMove();
+        assertEquals(before, game.zobristKey());
+        assertNull(game.getEnPassantTarget());
+
+        // with no pawn beside it a double step leaves no target
+        ChessGame quiet = ChessGame.fromFen("4k3/8/8/8/8/8/4P3/4K3 w - - 0 1");
+        play(quiet, "e2e4");
+        assertNull(quiet.getEnPassantTarget());
+    }
+
+    @Test
+    @DisplayName("Game State - Survives Serialization")
+    public void testSerialized() throws InvalidMoveException {
+        Gson gson = new Gson();
+        ChessGame game = ChessGame.fromFen("r3k2r/8/8/8/5p2/8/4P3/R3K2R w Kq - 0 1");
+        play(game, "e2e4");
+
+        ChessGame restored = gson.fromJson(gson.toJson(game), ChessGame.class);
+        assertEquals(game, restored);
+        assertEquals(game.toFen(), restored.toFen());
+
+        // saves from before castling was tracked keep the rights of unmoved kings and rooks
+        String json = gson.toJson(new ChessGame());
+        String old = json.substring(0, json.indexOf(",\"halfmoveClock\"")) + "}";
+        assertEquals(ChessGame.ALL_CASTLING, gson.fromJson(old, ChessGame.class).getCastlingRights());
+    }
+
+    @Test
+    @DisplayName("Game State - Malformed Board")
+    public void testMalformedBoard() {
+        Gson gson = new Gson();
+        String json = gson.toJson(new ChessBoard());
+        String nineRows = json.replace("]]}", "],[null]]}");
+        assertThrows(JsonParseException.class, () -> gson.fromJson(nineRows, ChessBoard.class));
+        String nineColumns = json.replaceFirst("\\[null", "[null,null,null,null,null,null,null,null,null");
+        assertThrows(JsonParseException.class, () -> gson.fromJson(nineColumns, ChessBoard.class));
+
+        ChessBoard board = new ChessBoard();
+        assertFalse(board.isOccupied(new ChessPosition(1, 9)));
+        assertThrows(IllegalArgumentException.class, () -> board.addPiece(new ChessPosition(0, 1),
+                new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KING)));
+    }
+}
@@ -0,0 +1,121 @@
+package chess;
+
+import chess.perft.Perft;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collection;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LegalMovesTests {
+
+    @Test
+    @DisplayName("Legal Moves - Membership Matches Valid Moves")
+    public void testMembershipMatchesValidMoves() {
+        for (Perft.Position position : Perft.POSITIONS) {
+            ChessGame game = position.load();
+            for (int from = 0; from < 64; from++) {
+                Collection<ChessMove> valid = game.validMoves(ChessPosition.of(from));
+                for (int to = 0; to < 64; to++) {
+                    for (ChessPiece.PieceType promotion : new ChessPiece.PieceType[]{null, ChessPiece.PieceType.QUEEN}) {
+                        ChessMove move = new ChessMove(ChessPosition.of(from), ChessPosition.of(to), promotion);
+                        assertEquals(valid != null && valid.contains(move), game.isLegal(move),
+                                position.name() + " " + move);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Legal Moves - Whole Side")
+    public void testWholeSide() {
+        for (Perft.Position position : Perft.POSITIONS) {
+            ChessGame game = position.load();
+            Collection<ChessMove> expected = new ArrayList<>();
+            for (int square = 0; square < 64; square++) {
+                ChessPiece piece = game.getBoard().pieceAt(square);
+                if (piece != null && piece.getTeamColor() == game.getTeamTurn()) {
+                    expected.addAll(game.validMoves(ChessPosition.of(square)));
+                }
+            }
+            assertEquals(expected, game.legalMoves(), position.name());
+            assertEquals(position.expected()[0], game.legalMoves().size(), position.name());
+
+            MoveList encoded = new MoveList();
+            game.legalMoves(encoded);
+            assertEquals(expected, encoded.toCollection(), position.name());
+        }
+
+        ChessGame mated = ChessGame.fromFen("R5k1/5ppp/8/8/8/8/8/6K1 b");
+        assertTrue(mated.legalMoves().isEmpty());
+        assertTrue(mated.isInCheckmate(ChessGame.TeamColor.BLACK));
+    }
+
+    @Test
+    @DisplayName("Legal Moves - Board Changes Invalidate")
+    public void testBoardChangesInvalidate() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        ChessMove push = new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5), null);
+        assertTrue(game.isLegal(push));
+
+        game.getBoard().addPiece(new ChessPosition(3, 5), ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KNIGHT));
+        assertFalse(game.isLegal(push));
+
+        game.getBoard().addPiece(new ChessPosition(3, 5), null);
+        game.makeMove(push);
+        assertFalse(game.isLegal(push));
+        assertTrue(game.isLegal(new ChessMove(new ChessPosition(7, 5), new ChessPosition(5, 5), null)));
+    }
+
+    @Test
+    @DisplayName("Legal Moves - Off Board Move")
+    public void testOffBoardMove() {
+        ChessGame game = new ChessGame();
+        assertFalse(game.isLegal(new ChessMove(new ChessPosition(2, 1), new ChessPosition(9, 1), null)));
+        assertFalse(game.isLegal(new ChessMove(new ChessPosition(0, 1), new ChessPosition(3, 1), null)));
+    }
+
+    @Test
+    @DisplayName("Legal Moves - Pins And Checks")
+    public void testPinsAndChecks() {
+        String[] fens = {
+                // rook pinned on a file, knight pinned on a diagonal
+                "4r2k/8/8/8/8/2b5/3N4/4RK2 w",
+                // double check: only the king moves
+                "4k3/8/8/8/8/5n2/8/r3K3 w",
+                // a double step blocks the check a single step cannot
+                "8/8/8/7k/K6r/8/1P6/8 w",
+                // the king may not step back along the checking rook's line
+                "8/8/8/8/r3K3/8/8/7k w",
+                // pinned pawn captures its pinner
+                "7k/8/8/8/8/2b5/3P4/4K3 w",
+        };
+        for (String fen : fens) {
+            ChessGame game = ChessGame.fromFen(fen);
+            ChessBoard board = game.getBoard();
+            ChessGame.TeamColor color = game.getTeamTurn();
+
+            MoveList expected = new MoveList();
+            MoveList pseudo = new MoveList();
+            for (long team = board.team(color); team != 0; team &= team - 1) {
+                int square = Long.numberOfTrailingZeros(team);
+                pseudo.clear();
+                board.pieceAt(square).generateMoves(board, square, pseudo);
+                for (int i = 0; i < pseudo.size(); i++) {
+                    int captured = board.makeMove(pseudo.get(i));
+                    if (!game.isInCheck(color)) {
+                        expected.add(pseudo.get(i));
+                    }
+                    board.unmakeMove(pseudo.get(i), captured);
+                }
+            }
+
+            MoveList generated = new MoveList();
+            MoveGenerator.legalMoves(board, color, generated);
+            assertEquals(expected.toCollection(), generated.toCollection(), fen);
+        }
+    }
+}
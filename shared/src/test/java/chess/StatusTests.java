@@ -0,0 +1,39 @@
+package chess;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class StatusTests {
+
+    private static void assertStatus(ChessGame.GameStatus expected, String fen) {
+        ChessGame game = ChessGame.fromFen(fen);
+        ChessGame.TeamColor team = game.getTeamTurn();
+        assertEquals(expected, game.status(team), fen);
+        assertEquals(expected == ChessGame.GameStatus.CHECK || expected == ChessGame.GameStatus.CHECKMATE,
+                game.isInCheck(team), fen);
+        assertEquals(expected == ChessGame.GameStatus.CHECKMATE, game.isInCheckmate(team), fen);
+        assertEquals(expected == ChessGame.GameStatus.STALEMATE, game.isInStalemate(team), fen);
+    }
+
+    @Test
+    @DisplayName("Status - Each Outcome")
+    public void testEachOutcome() {
+        assertStatus(ChessGame.GameStatus.NORMAL, "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w");
+        assertStatus(ChessGame.GameStatus.CHECK, "rnb1kbnr/pppp1ppp/8/4p3/7q/5P2/PPPPP1PP/RNBQKBNR w");
+        assertStatus(ChessGame.GameStatus.CHECKMATE, "rnb1kbnr/pppp1ppp/8/4p3/6Pq/5P2/PPPPP2P/RNBQKBNR w");
+        assertStatus(ChessGame.GameStatus.STALEMATE, "k7/2Q5/8/8/8/8/8/7K b");
+    }
+
+    @Test
+    @DisplayName("Status - Agrees With Cached Moves")
+    public void testAgreesWithCachedMoves() {
+        ChessGame game = ChessGame.fromFen("k7/2Q5/8/8/8/8/8/7K b");
+        assertTrue(game.validMoves(new ChessPosition(8, 1)).isEmpty());
+        assertEquals(ChessGame.GameStatus.STALEMATE, game.status(ChessGame.TeamColor.BLACK));
+
+        game.getBoard().addPiece(new ChessPosition(7, 3), null);
+        assertEquals(ChessGame.GameStatus.NORMAL, game.status(ChessGame.TeamColor.BLACK));
+    }
+}
@@ -0,0 +1,136 @@
+package chess.book;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPosition;
+import chess.InvalidMoveException;
+import chess.Move;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OpeningBookTests {
+    private static final String PGN = """
+            [Event "First"]
+            [White "A"]
+            [Black "B"]
+
+            1. e4 {best by test} e5 2. Nf3 Nc6 (2... d6 3. d4) 3. Bb5 $1 a6 1-0
+
+            [Event "Second"]
+
+            1. e4 c5 2. Nf3; the Open Sicilian follows
+            d6 1/2-1/2
+
+            [Event "Third"]
+            1.d4 d5 2.c4 *
+            """;
+
+    private static ChessMove move(int startRow, int startCol, int endRow, int endCol) {
+        return new ChessMove(new ChessPosition(startRow, startCol), new ChessPosition(endRow, endCol), null);
+    }
+
+    private static OpeningBook build(Path dir, String pgn, int plies) throws IOException {
+        BookBuilder builder = new BookBuilder(plies);
+        builder.addPgn(new StringReader(pgn));
+        Path file = dir.resolve("book.bin");
+        try (OutputStream out = Files.newOutputStream(file)) {
+            builder.write(out, 1);
+        }
+        return OpeningBook.open(file);
+    }
+
+    @Test
+    @DisplayName("Book - PGN Main Lines")
+    public void testPgnGames() throws IOException {
+        List<List<String>> games = Pgn.games(new StringReader(PGN));
+
+        assertEquals(3, games.size());
+        assertEquals(List.of("e4", "e5", "Nf3", "Nc6", "Bb5", "a6"), games.get(0));
+        assertEquals(List.of("e4", "c5", "Nf3", "d6"), games.get(1));
+        assertEquals(List.of("d4", "d5", "c4"), games.get(2));
+    }
+
+    @Test
+    @DisplayName("Book - SAN Moves")
+    public void testResolve() {
+        ChessGame game = ChessGame.fromFen("r3k3/1P6/8/8/8/2N3N1/8/4K3 w - - 0 1");
+
+        assertEquals("c3e4", Move.toString(Pgn.resolve(game, "Nce4")));
+        assertEquals("g3e4", Move.toString(Pgn.resolve(game, "Nge4+")));
+        assertEquals(Move.NONE, Pgn.resolve(game, "Ne4"));
+        assertEquals("b7a8q", Move.toString(Pgn.resolve(game, "bxa8=Q#")));
+        assertEquals("b7b8n", Move.toString(Pgn.resolve(game, "b8N")));
+        assertEquals(Move.NONE, Pgn.resolve(game, "Qd4"));
+
+        ChessGame castling = ChessGame.fromFen("r3k2r/8/8/8/8/8/8/R3K2R w Kq - 0 1");
+        assertEquals("e1g1", Move.toString(Pgn.resolve(castling, "O-O")));
+        assertEquals(Move.NONE, Pgn.resolve(castling, "O-O-O"));
+    }
+
+    @Test
+    @DisplayName("Book - Lookup")
+    public void testLookup(@TempDir Path dir) throws IOException, InvalidMoveException {
+        OpeningBook book = build(dir, PGN, 24);
+        ChessGame game = new ChessGame();
+
+        List<BookMove> moves = book.moves(game);
+        assertEquals(2, moves.size());
+        assertEquals(new BookMove(move(2, 5, 4, 5), 2), moves.get(0));
+        assertEquals(new BookMove(move(2, 4, 4, 4), 1), moves.get(1));
+
+        game.makeMove(move(2, 5, 4, 5));
+        List<BookMove> replies = book.moves(game);
+        assertEquals(2, replies.size());
+        assertTrue(replies.contains(new BookMove(move(7, 5, 5, 5), 1)));
+        assertTrue(replies.contains(new BookMove(move(7, 3, 5, 3), 1)));
+
+        assertTrue(book.moves(ChessGame.fromFen("4k3/8/8/8/8/8/8/4K3 w - - 0 1")).isEmpty());
+        assertNull(book.pick(ChessGame.fromFen("4k3/8/8/8/8/8/8/4K3 w - - 0 1"), new Random(1)));
+    }
+
+    @Test
+    @DisplayName("Book - Weighted Pick")
+    public void testPick(@TempDir Path dir) throws IOException {
+        OpeningBook book = build(dir, PGN, 24);
+        Random random = new Random(7);
+        int kingPawn = 0;
+        for (int i = 0; i < 300; i++) {
+            ChessMove move = book.pick(new ChessGame(), random);
+            assertTrue(new ChessGame().isLegal(move));
+            if (move.equals(move(2, 5, 4, 5))) {
+                kingPawn++;
+            }
+        }
+        // e4 was played in two games of three
+        assertTrue(kingPawn > 150 && kingPawn < 250, "e4 picked " + kingPawn + " times");
+    }
+
+    @Test
+    @DisplayName("Book - Ply Limit And Bad Files")
+    public void testPlyLimit(@TempDir Path dir) throws IOException {
+        OpeningBook book = build(dir, PGN, 1);
+        assertEquals(2, book.size());
+
+        Path junk = dir.resolve("junk.bin");
+        Files.write(junk, new byte[]{1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16, 17});
+        assertThrows(IOException.class, () -> OpeningBook.open(junk));
+        assertNull(OpeningBook.openIfExists(dir.resolve("missing.bin")));
+
+        // a real book over the limit, which stands in for one over 2 GiB
+        Path path = dir.resolve("book.bin");
+        IOException error = assertThrows(IOException.class, () -> OpeningBook.open(path, Files.size(path) - 1));
+        assertTrue(error.getMessage().endsWith("too large to map"), error.getMessage());
+        assertEquals(2, OpeningBook.open(path, Files.size(path)).size());
+    }
+}
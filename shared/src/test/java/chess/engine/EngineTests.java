@@ -0,0 +1,107 @@
+package chess.engine;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPosition;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class EngineTests {
+
+    private static ChessMove move(int startRow, int startCol, int endRow, int endCol) {
+        return new ChessMove(new ChessPosition(startRow, startCol), new ChessPosition(endRow, endCol), null);
+    }
+
+    @Test
+    @DisplayName("Engine - Mate In One")
+    public void testMateInOne() {
+        ChessGame game = ChessGame.fromFen("6k1/5ppp/8/8/8/8/5PPP/R5K1 w - - 0 1");
+        SearchResult result = new Engine().search(game, SearchLimits.depth(4));
+
+        assertEquals(move(1, 1, 8, 1), result.bestMove());
+        assertTrue(result.isMate());
+        assertEquals(1, result.mateIn());
+    }
+
+    @Test
+    @DisplayName("Engine - Wins Hanging Queen")
+    public void testWinsHangingQueen() {
+        ChessGame game = ChessGame.fromFen("4k3/8/8/3q4/8/8/3R4/4K3 w - - 0 1");
+        assertEquals(move(2, 4, 5, 4), new Engine().bestMove(game, SearchLimits.depth(3)));
+    }
+
+    @Test
+    @DisplayName("Engine - Avoids Being Mated")
+    public void testAvoidsMate() {
+        ChessGame game = ChessGame.fromFen("6k1/5ppp/8/8/8/8/r4PPP/1R4K1 b - - 0 1");
+        SearchResult result = new Engine().search(game, SearchLimits.depth(4));
+
+        assertNotNull(result.bestMove());
+        assertFalse(result.isMate() && result.score() < 0);
+    }
+
+    @Test
+    @DisplayName("Engine - No Legal Moves")
+    public void testNoLegalMoves() {
+        ChessGame game = ChessGame.fromFen("k7/2Q5/8/8/8/8/8/7K b");
+        assertNull(new Engine().bestMove(game, SearchLimits.depth(3)));
+    }
+
+    @Test
+    @DisplayName("Engine - Limits and Game Untouched")
+    public void testLimits() {
+        ChessGame game = new ChessGame();
+        String before = game.toFen();
+
+        SearchResult byNodes = new Engine().search(game, SearchLimits.nodes(5000));
+        assertNotNull(byNodes.bestMove());
+        assertTrue(byNodes.nodes() <= 5000);
+
+        SearchResult byTime = new Engine().search(game, SearchLimits.millis(50));
+        assertNotNull(byTime.bestMove());
+        assertTrue(byTime.nanos() < 1_000_000_000L);
+
+        assertEquals(before, game.toFen());
+    }
+
+    @Test
+    @DisplayName("Engine - Lazy SMP")
+    public void testLazySmp() {
+        Engine engine = new Engine(4, 3);
+        try {
+            ChessGame game = ChessGame.fromFen("6k1/5ppp/8/8/8/8/5PPP/R5K1 w - - 0 1");
+            assertEquals(move(1, 1, 8, 1), engine.bestMove(game, SearchLimits.depth(4)));
+
+            SearchResult result = engine.search(new ChessGame(), SearchLimits.millis(100));
+            assertNotNull(result.bestMove());
+            assertTrue(result.depth() >= 1);
+        } finally {
+            engine.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Engine - Multi-PV Analysis")
+    public void testMultiPv() {
+        List<Integer> depths = new ArrayList<>();
+        List<SearchResult> lines = new Engine().analyse(new ChessGame(), SearchLimits.depth(4), 3,
+                iteration -> depths.add(iteration.get(0).depth()));
+
+        assertEquals(List.of(1, 2, 3, 4), depths);
+        assertEquals(3, lines.size());
+        assertEquals(3, lines.stream().map(SearchResult::move).distinct().count());
+        for (SearchResult line : lines) {
+            assertEquals(4, line.depth());
+            assertEquals(line.move(), line.pv()[0]);
+        }
+
+        // a king with two legal moves can only have two lines
+        ChessGame game = ChessGame.fromFen("k7/8/8/2Q5/8/8/8/7K b - - 0 1");
+        assertEquals(2, new Engine().analyse(game, SearchLimits.depth(3), 5, null).size());
+    }
+}
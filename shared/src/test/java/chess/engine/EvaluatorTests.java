@@ -0,0 +1,57 @@
+package chess.engine;
+
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.MoveList;
+import chess.PieceSquareTables;
+import chess.perft.Perft;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class EvaluatorTests {
+
+    @Test
+    @DisplayName("Evaluator - Starting Position Is Balanced")
+    public void testStartBalanced() {
+        ChessGame game = new ChessGame();
+        assertEquals(0, Evaluator.evaluate(game));
+        assertEquals(PieceSquareTables.MAX_PHASE, game.getBoard().phase());
+    }
+
+    @Test
+    @DisplayName("Evaluator - Mirrored Positions Score The Same")
+    public void testMirrored() {
+        ChessGame white = ChessGame.fromFen("r1bqkbnr/pppp1ppp/2n5/4p3/4P3/5N2/PPPP1PPP/RNBQKB1R w - - 2 3");
+        ChessGame black = ChessGame.fromFen("rnbqkb1r/pppp1ppp/5n2/4p3/4P3/2N5/PPPP1PPP/R1BQKBNR b - - 2 3");
+        assertEquals(Evaluator.evaluate(white), Evaluator.evaluate(black));
+    }
+
+    @Test
+    @DisplayName("Evaluator - Incremental Terms Match A Fresh Board")
+    public void testIncremental() {
+        for (Perft.Position position : Perft.POSITIONS) {
+            walk(position.load(), 3);
+        }
+    }
+
+    // plays every line to the given depth, checking the board's running sums at each node
+    private static void walk(ChessGame game, int depth) {
+        ChessBoard board = game.getBoard();
+        ChessBoard fresh = ChessBoard.fromFen(board.toFen());
+        assertEquals(fresh.middlegameScore(), board.middlegameScore());
+        assertEquals(fresh.endgameScore(), board.endgameScore());
+        assertEquals(fresh.phase(), board.phase());
+        if (depth == 0) {
+            return;
+        }
+        MoveList moves = new MoveList();
+        Perft.generate(game, moves);
+        for (int i = 0; i < moves.size(); i++) {
+            game.doMove(moves.get(i));
+            walk(game, depth - 1);
+            game.undoMove();
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package chess.engine;
+
+import chess.Move;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TranspositionTableTests {
+
+    @Test
+    @DisplayName("Transposition Table - Size From Budget")
+    public void testSize() {
+        assertEquals(65536, new TranspositionTable(1).capacity());
+        assertEquals(131072, new TranspositionTable(3).capacity());
+        assertThrows(IllegalArgumentException.class, () -> new TranspositionTable(0));
+    }
+
+    @Test
+    @DisplayName("Transposition Table - Store and Probe")
+    public void testStoreAndProbe() {
+        TranspositionTable table = new TranspositionTable(1);
+        int move = Move.of(12, 28, null, Move.DOUBLE_PUSH);
+        table.store(0x1234_5678_9ABC_DEF0L, move, -150, 7, TranspositionTable.LOWER);
+
+        long entry = table.probe(0x1234_5678_9ABC_DEF0L);
+        assertEquals(move, TranspositionTable.move(entry));
+        assertEquals(-150, TranspositionTable.score(entry));
+        assertEquals(7, TranspositionTable.depth(entry));
+        assertEquals(TranspositionTable.LOWER, TranspositionTable.bound(entry));
+
+        // same bucket, different key
+        assertEquals(0, table.probe(0x1234_5678_9ABC_DEF0L ^ (1L << 60)));
+    }
+
+    @Test
+    @DisplayName("Transposition Table - Replaces Shallow and Stale Entries")
+    public void testReplacement() {
+        TranspositionTable table = new TranspositionTable(1);
+        long bucketStride = table.capacity() / 4;
+        for (int i = 0; i < 4; i++) {
+            table.store(5 + i * bucketStride, Move.NONE, 0, 10 + i, TranspositionTable.EXACT);
+        }
+        table.store(5 + 4 * bucketStride, Move.NONE, 0, 1, TranspositionTable.EXACT);
+        assertEquals(0, table.probe(5));
+        assertNotEquals(0, table.probe(5 + bucketStride));
+
+        table.newSearch();
+        table.newSearch();
+        table.store(5 + 5 * bucketStride, Move.NONE, 0, 1, TranspositionTable.EXACT);
+        assertNotEquals(0, table.probe(5 + 5 * bucketStride));
+        assertNotEquals(0, table.probe(5 + 3 * bucketStride));
+    }
+
+    @Test
+    @DisplayName("Transposition Table - Mate Scores Relative To Node")
+    public void testMateScores() {
+        int mateInThreeFromRoot = Search.MATE - 5;
+        int stored = TranspositionTable.scoreToTable(mateInThreeFromRoot, 2);
+        assertEquals(Search.MATE - 3, stored);
+        assertEquals(Search.MATE - 7, TranspositionTable.scoreFromTable(stored, 4));
+        assertEquals(120, TranspositionTable.scoreFromTable(TranspositionTable.scoreToTable(120, 9), 3));
+
+        // a tablebase mate probed deep in the tree is still a mate
+        int longMate = Search.MATE - Search.MAX_PLY - 60;
+        assertEquals(longMate + 5, TranspositionTable.scoreToTable(longMate, 5));
+        assertEquals(-longMate + 3, TranspositionTable.scoreFromTable(-longMate - 2, 5));
+        SearchResult result = new SearchResult(Move.NONE, longMate, 1, 0, 0, new int[0]);
+        assertTrue(result.isMate());
+        assertEquals((Search.MAX_PLY + 61) / 2, result.mateIn());
+    }
+}
@@ -0,0 +1,53 @@
+package chess.perft;
+
+import chess.ChessGame;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PerftTests {
+
+    @Test
+    @DisplayName("Perft - Reference Counts")
+    public void testReferenceCounts() {
+        for (Perft.Position position : Perft.POSITIONS) {
+            int depths = Math.min(3, position.expected().length);
+            for (int depth = 1; depth <= depths; depth++) {
+                long nodes = new Perft(position.load()).count(depth);
+                assertEquals(position.expected()[depth - 1], nodes, position.name() + " depth " + depth);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Perft - Position Restored")
+    public void testPositionRestored() {
+        // castling and en passant both come up within three plies of kiwipete
+        ChessGame game = Perft.POSITIONS.get(1).load();
+        ChessGame before = game.copy();
+        new Perft(game).count(3);
+
+        assertEquals(before, game);
+        assertEquals(before.zobristKey(), game.zobristKey());
+        assertEquals(before.toFen(), game.toFen());
+    }
+
+    @Test
+    @DisplayName("Parallel Perft - Matches Sequential")
+    public void testParallelMatchesSequential() {
+        Perft.Position position = Perft.POSITIONS.get(1);
+        ParallelPerft parallel = new ParallelPerft(2, true);
+        try {
+            assertEquals(position.expected()[2], parallel.count(position.load(), 3));
+
+            long total = 0;
+            for (long nodes : parallel.divide(position.load(), 2).values()) {
+                total += nodes;
+            }
+            assertEquals(position.expected()[1], total);
+        } finally {
+            parallel.shutdown();
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package chess.tablebase;
+
+import chess.ChessGame;
+import chess.engine.Engine;
+import chess.engine.SearchLimits;
+import chess.engine.SearchResult;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TablebaseTests {
+    @TempDir
+    static Path directory;
+
+    private static Tablebases tablebases;
+
+    @BeforeAll
+    public static void generate() throws IOException {
+        tablebases = Tablebases.open(directory);
+        // KPvK needs KQvK and KRvK, which are generated along the way
+        new TablebaseGenerator(tablebases).generate("KPvK");
+    }
+
+    private static TablebaseResult probe(String fen) {
+        return tablebases.probe(ChessGame.fromFen(fen));
+    }
+
+    @Test
+    @DisplayName("Tablebase - Dependencies Written")
+    public void testFiles() {
+        for (String name : new String[]{"KQvK", "KRvK", "KPvK"}) {
+            assertTrue(Files.isRegularFile(directory.resolve(name + Tablebases.EXTENSION)), name);
+        }
+        assertFalse(Files.exists(directory.resolve("KBvK" + Tablebases.EXTENSION)));
+    }
+
+    @Test
+    @DisplayName("Tablebase - Known Results")
+    public void testKnownResults() {
+        assertEquals(new TablebaseResult(TablebaseResult.Outcome.WIN, 1), probe("7k/8/6K1/8/8/8/8/1Q6 w"));
+        assertEquals(new TablebaseResult(TablebaseResult.Outcome.LOSS, 0), probe("Q6k/8/6K1/8/8/8/8/8 b"));
+        assertEquals(TablebaseResult.Outcome.WIN, probe("4k3/8/4K3/4P3/8/8/8/8 w").outcome());
+        assertEquals(TablebaseResult.Outcome.DRAW, probe("k7/8/8/P7/8/8/8/7K w").outcome());
+        // the rook can be taken at once
+        assertEquals(TablebaseResult.Outcome.DRAW, probe("8/8/8/8/8/2k5/8/Kr6 w").outcome());
+    }
+
+    @Test
+    @DisplayName("Tablebase - Longest Mates")
+    public void testLongestMates() throws IOException {
+        Tablebase queen = tablebases.table(Material.parse("KQvK"));
+        Tablebase rook = tablebases.table(Material.parse("KRvK"));
+        Tablebase pawn = tablebases.table(Material.parse("KPvK"));
+        assertEquals(19, longestWin(queen));
+        assertEquals(31, longestWin(rook));
+        assertEquals(55, longestWin(pawn));
+    }
+
+    // generating KQvKR takes the better part of a minute, so it only runs when asked for
+    @Test
+    @EnabledIfSystemProperty(named = "tablebases.full", matches = "true")
+    @DisplayName("Tablebase - Longest Four Piece Mate")
+    public void testLongestFourPieceMate() throws IOException {
+        new TablebaseGenerator(tablebases).generate("KQvKR");
+        assertEquals(69, longestWin(tablebases.table(Material.parse("KQvKR"))));
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "tablebases.full", matches = "true")
+    @DisplayName("Tablebase - Engine Scores The Longest Mate")
+    public void testEngineLongestMate() throws IOException {
+        new TablebaseGenerator(tablebases).generate("KQvKR");
+        ChessGame game = ChessGame.fromFen("K1Q5/8/8/8/8/8/3k4/r7 w - - 0 1");
+        assertEquals(new TablebaseResult(TablebaseResult.Outcome.WIN, 69), tablebases.probe(game));
+
+        Engine engine = new Engine();
+        engine.setTablebases(tablebases);
+        SearchResult result = engine.search(game, SearchLimits.depth(3));
+        assertTrue(result.isMate());
+        assertEquals(35, result.mateIn());
+    }
+
+    private static int longestWin(Tablebase table) {
+        int longest = 0;
+        for (int index = 0; index < Tablebase.size(table.material()); index++) {
+            int value = table.value(index);
+            if (value < Tablebase.LOSS) {
+                longest = Math.max(longest, value);
+            }
+        }
+        return longest;
+    }
+
+    @Test
+    @DisplayName("Tablebase - Either Color")
+    public void testFlipped() {
+        assertEquals(probe("7k/8/6K1/8/8/8/8/1Q6 w"), probe("1q6/8/8/8/8/6k1/8/7K b"));
+        assertEquals(probe("4k3/8/4K3/4P3/8/8/8/8 w"), probe("8/8/8/8/4p3/4k3/8/4K3 b"));
+    }
+
+    @Test
+    @DisplayName("Tablebase - Unknown And Dead Positions")
+    public void testCoverage() {
+        Tablebases empty = Tablebases.open(directory.resolve("missing"));
+        assertEquals(TablebaseResult.Outcome.DRAW, empty.probe(ChessGame.fromFen("8/8/3k4/8/8/3K4/8/8 w")).outcome());
+        assertEquals(TablebaseResult.Outcome.DRAW, empty.probe(ChessGame.fromFen("8/8/3k4/8/8/3K4/3N4/8 b")).outcome());
+        assertNull(empty.probe(ChessGame.fromFen("7k/8/6K1/8/8/8/8/1Q6 w")));
+        assertNull(tablebases.probe(new ChessGame()));
+        assertNull(probe("7k/8/6K1/8/8/8/8/QR6 w"));
+        // the king on the move could capture its opponent
+        assertNull(probe("7k/8/6K1/8/8/8/8/Q7 w"));
+        // the tables know nothing of castling
+        assertNull(probe("8/8/8/4k3/8/8/8/R3K3 w Q -"));
+
+        assertThrows(IllegalArgumentException.class, () -> new TablebaseGenerator(empty).generate("KQ"));
+        assertThrows(IllegalArgumentException.class, () -> new TablebaseGenerator(empty).generate("KQRvKR"));
+    }
+
+    @Test
+    @DisplayName("Tablebase - Corrupt File")
+    public void testCorrupt(@TempDir Path other) throws IOException {
+        Files.write(other.resolve("KQvK" + Tablebases.EXTENSION), new byte[]{1, 2, 3});
+        Tablebases corrupt = Tablebases.open(other);
+        assertThrows(UncheckedIOException.class, () -> corrupt.probe(ChessGame.fromFen("7k/8/6K1/8/8/8/8/1Q6 w")));
+    }
+
+    @Test
+    @DisplayName("Tablebase - Reopened From Disk")
+    public void testReopen() {
+        Tablebases reopened = Tablebases.open(directory);
+        String fen = "8/8/8/4k3/8/8/8/R3K3 w - -";
+        assertEquals(probe(fen), reopened.probe(ChessGame.fromFen(fen)));
+    }
+
+    @Test
+    @DisplayName("Tablebase - Game Status")
+    public void testStatus() {
+        ChessGame bareKings = ChessGame.fromFen("8/8/3k4/8/8/3K4/8/8 w");
+        assertEquals(ChessGame.GameStatus.TABLEBASE_DRAW, bareKings.status(ChessGame.TeamColor.WHITE, tablebases));
+        assertEquals(ChessGame.GameStatus.NORMAL, bareKings.status(ChessGame.TeamColor.WHITE));
+
+        ChessGame winning = ChessGame.fromFen("8/8/8/4k3/8/8/8/R3K3 b - -");
+        assertEquals(ChessGame.GameStatus.NORMAL, winning.status(ChessGame.TeamColor.BLACK, tablebases));
+        assertEquals(ChessGame.GameStatus.CHECKMATE,
+                ChessGame.fromFen("Q6k/8/6K1/8/8/8/8/8 b").status(ChessGame.TeamColor.BLACK, tablebases));
+    }
+
+    @Test
+    @DisplayName("Tablebase - Engine Finds Long Mates")
+    public void testEngine() {
+        ChessGame game = ChessGame.fromFen("8/8/8/4k3/8/8/8/R3K3 w - -");
+        TablebaseResult known = tablebases.probe(game);
+        assertEquals(TablebaseResult.Outcome.WIN, known.outcome());
+        assertTrue(known.movesToMate() > 10);
+
+        Engine engine = new Engine();
+        engine.setTablebases(tablebases);
+        SearchResult result = engine.search(game, SearchLimits.depth(2));
+        assertTrue(result.isMate());
+        assertEquals(known.movesToMate(), result.mateIn());
+
+        game.doMove(result.move());
+        assertEquals(TablebaseResult.Outcome.LOSS, tablebases.probe(game).outcome());
+        assertEquals(known.plies() - 1, tablebases.probe(game).plies());
+    }
+}